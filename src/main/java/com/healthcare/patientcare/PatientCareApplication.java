@@ -1,13 +1,29 @@
 package com.healthcare.patientcare;
 
+import com.healthcare.patientcare.mcp.MCPStdioTransport;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
 
 @SpringBootApplication
 public class PatientCareApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(PatientCareApplication.class, args);
+		SpringApplication application = new SpringApplication(PatientCareApplication.class);
+		// Records startup steps such as the MCP tool scan so cold-start cost can be inspected
+		application.setApplicationStartup(new BufferingApplicationStartup(2048));
+		if (Arrays.asList(args).contains("--stdio")) {
+			application.setAdditionalProfiles(MCPStdioTransport.PROFILE);
+		}
+
+		ConfigurableApplicationContext context = application.run(args);
+		if (context.getEnvironment().matchesProfiles(MCPStdioTransport.PROFILE)) {
+			// stdin reached EOF: the client has gone away
+			System.exit(SpringApplication.exit(context));
+		}
 		System.out.println("Patient Care System is running on http://localhost:8080");
 		System.out.println("H2 Console available at http://localhost:8080/h2-console");
 	}
@@ -0,0 +1,34 @@
+package com.healthcare.patientcare.config;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String PATIENTS = "patients";
+    public static final String CARE_PLANS = "carePlans";
+    public static final String PROGRESS_NOTES = "progressNotes";
+
+    /**
+     * Caffeine caches (bounded, W-TinyLFU eviction) sized and expired by
+     * spring.cache.caffeine.spec. Evictions are deferred until the surrounding
+     * transaction commits, so a concurrent reader cannot re-cache the old state.
+     */
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setCaffeineSpec(CaffeineSpec.parse(cacheProperties.getCaffeine().getSpec()));
+        caffeineCacheManager.setCacheNames(cacheProperties.getCacheNames());
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -30,6 +30,11 @@ public class DataInitializer implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
+        // A persistent database keeps the sample data from an earlier start
+        if (patientRepository.findByPatientId("PAT001").isPresent()) {
+            return;
+        }
+
         // Create Patient 1
         Patient patient1 = new Patient();
         patient1.setName("John Smith");
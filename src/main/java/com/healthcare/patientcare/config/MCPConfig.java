@@ -0,0 +1,94 @@
+package com.healthcare.patientcare.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class MCPConfig {
+
+    @Value("${mcp.batch.pool-size:8}")
+    private int batchPoolSize;
+
+    @Value("${mcp.batch.queue-capacity:64}")
+    private int batchQueueCapacity;
+
+    @Value("${mcp.batch.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int batchMaxConcurrency;
+
+    /**
+     * Bounded pool for fanning out read-only tool calls from JSON-RPC batches.
+     * When it is saturated the request thread runs the call itself.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor mcpBatchExecutor(EntityManagerFactory entityManagerFactory) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(batchPoolSize);
+        executor.setMaxPoolSize(batchPoolSize);
+        executor.setQueueCapacity(batchQueueCapacity);
+        executor.setThreadNamePrefix("mcp-batch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(openEntityManager(entityManagerFactory));
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * With virtual threads enabled, every fanned-out call gets its own virtual
+     * thread. Tool calls are blocking JDBC, so the connection pool is what
+     * really bounds them; a semaphore sized to it keeps waiting calls parked
+     * cheaply here rather than queueing for a connection.
+     */
+    @Bean(name = "mcpBatchExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public TaskExecutor virtualThreadBatchExecutor(EntityManagerFactory entityManagerFactory) {
+        VirtualThreadTaskExecutor virtualThreads = new VirtualThreadTaskExecutor("mcp-batch-");
+        TaskDecorator withEntityManager = openEntityManager(entityManagerFactory);
+        Semaphore permits = new Semaphore(batchMaxConcurrency);
+        return task -> virtualThreads.execute(withEntityManager.decorate(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        }));
+    }
+
+    /**
+     * Gives each task the same open EntityManager a web request gets from open-in-view,
+     * so tools can serialize lazy associations off the request thread or outside MVC.
+     */
+    public static TaskDecorator openEntityManager(EntityManagerFactory entityManagerFactory) {
+        return task -> () -> {
+            if (TransactionSynchronizationManager.hasResource(entityManagerFactory)) {
+                task.run();
+                return;
+            }
+
+            EntityManager entityManager = entityManagerFactory.createEntityManager();
+            TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+            try {
+                task.run();
+            } finally {
+                TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+                EntityManagerFactoryUtils.closeEntityManager(entityManager);
+            }
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package com.healthcare.patientcare.config;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Local, in-memory span exporter: keeps the last tracing.recent-spans finished
+ * spans so traces can be inspected (GET /api/traces) and asserted on in tests
+ * without an external collector. Spring Boot adds every SpanProcessor bean to
+ * the OpenTelemetry tracer provider; spans are recorded as they end rather than
+ * batched.
+ */
+@Component
+public class RecentSpans implements SpanProcessor {
+
+    @Value("${tracing.recent-spans:2000}")
+    private int capacity;
+
+    private final Lock lock = new ReentrantLock();
+    private final Deque<SpanData> spans = new ArrayDeque<>();
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        if (!span.getSpanContext().isSampled()) {
+            return;
+        }
+        SpanData data = span.toSpanData();
+        lock.lock();
+        try {
+            spans.addLast(data);
+            if (spans.size() > capacity) {
+                spans.removeFirst();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    /** Spans of one trace still held, in the order they started. */
+    public List<SpanData> trace(String traceId) {
+        List<SpanData> result = new ArrayList<>();
+        for (SpanData span : snapshot()) {
+            if (span.getTraceId().equals(traceId)) {
+                result.add(span);
+            }
+        }
+        result.sort((a, b) -> Long.compare(a.getStartEpochNanos(), b.getStartEpochNanos()));
+        return result;
+    }
+
+    /** The most recent spans that start a trace in this service, newest first. */
+    public List<SpanData> recentRoots(int limit) {
+        List<SpanData> all = snapshot();
+        List<SpanData> roots = new ArrayList<>();
+        for (int i = all.size() - 1; i >= 0 && roots.size() < limit; i--) {
+            SpanData span = all.get(i);
+            if (!span.getParentSpanContext().isValid() || span.getParentSpanContext().isRemote()) {
+                roots.add(span);
+            }
+        }
+        return roots;
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            spans.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        clear();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private List<SpanData> snapshot() {
+        lock.lock();
+        try {
+            return new ArrayList<>(spans);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
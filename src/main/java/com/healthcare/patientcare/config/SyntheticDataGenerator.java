@@ -0,0 +1,292 @@
+package com.healthcare.patientcare.config;
+
+import com.healthcare.patientcare.entity.Appointment;
+import com.healthcare.patientcare.entity.Patient;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds synthetic patients, care plans, progress notes and appointments at
+ * startup when seed.synthetic.patients is above zero. Rows go straight to
+ * JDBC batch inserts, one transaction per seed.synthetic.batch-size patients
+ * or appointments, so millions of rows load in minutes. Ids are drawn from the
+ * entity sequences in blocks the same way Hibernate draws them, so entities
+ * saved afterwards never collide with generated rows. Runs before the other
+ * runners, and before the search index, clinical text index, schedule and
+ * agenda are rebuilt on ApplicationReadyEvent, so all of those see the data.
+ */
+@Component
+@Order(0)
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    // The allocationSize of every entity sequence: one sequence value covers this many ids
+    private static final int ID_BLOCK = 100;
+    private static final String PATIENT_ID_FORMAT = "SYN%08d";
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Carlos", "Karen",
+            "Wei", "Priya", "Ahmed", "Fatima", "Hiroshi", "Yuki", "Olga", "Ivan", "Amara", "Kwame"};
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Lee", "Chen", "Patel", "Khan", "Tanaka", "Ivanova", "Okafor", "Mensah", "Nguyen", "Kowalski"};
+    private static final String[] STREETS = {"Main St", "Oak Ave", "Maple Dr", "Cedar Ln", "Elm St", "Pine Rd", "Lake Blvd"};
+    private static final String[] NOTE_TYPES = {"Assessment", "Follow-up", "Treatment", "Observation"};
+    private static final NoteTemplate[] NOTES = {
+            new NoteTemplate("Blood pressure %d/%d. Patient reports adherence to medication.", 110, 170, 70, 100),
+            new NoteTemplate("Follow-up visit. Symptoms improving. Heart rate %d bpm, SpO2 %d%%.", 55, 110, 91, 100),
+            new NoteTemplate("HbA1c %d.%d%%. Reviewed diet and glucose log with patient.", 5, 11, 0, 9),
+            new NoteTemplate("Complains of intermittent headache for %d days. Pain score %d/10.", 1, 30, 1, 10),
+            new NoteTemplate("Wound %d cm, healing well with no signs of infection. Review in %d days.", 1, 8, 3, 14),
+            new NoteTemplate("Peak flow %d L/min. Inhaler technique reviewed, %d puffs as needed.", 200, 600, 1, 3)};
+    private static final String[][] CARE_PLANS = {
+            {"Reduce blood pressure to below 130/80 within 3 months",
+                    "Reduce sodium intake, 30 minutes of exercise daily, home BP monitoring",
+                    "Lisinopril 10mg once daily"},
+            {"Achieve HbA1c below 7.0% within 6 months",
+                    "Dietary counseling, regular glucose monitoring, exercise program",
+                    "Metformin 500mg twice daily"},
+            {"Fewer than two asthma exacerbations per year",
+                    "Inhaler technique review, trigger avoidance, written action plan",
+                    "Budesonide/formoterol 200/6 two puffs twice daily"},
+            {"Return to full mobility after knee replacement",
+                    "Physiotherapy three times weekly, graded walking program",
+                    "Paracetamol 1g four times daily as needed"},
+            {"Reduce LDL cholesterol below 100 mg/dL",
+                    "Mediterranean diet, weight loss of 5% over 6 months",
+                    "Atorvastatin 20mg once daily"}};
+    private static final String[] CARE_PLAN_STATUSES = {"Active", "Active", "Active", "Under Review", "Completed"};
+    private static final String[] REASONS = {
+            "Routine check-up", "Blood pressure follow-up", "Diabetes management review", "Medication review",
+            "Post-operative review", "Lab results discussion", "Annual physical", "Asthma review"};
+
+    @Value("${seed.synthetic.patients:0}")
+    private int patients;
+
+    @Value("${seed.synthetic.notes-per-patient:5}")
+    private int notesPerPatient;
+
+    @Value("${seed.synthetic.providers:50}")
+    private int providers;
+
+    @Value("${seed.synthetic.appointments-per-provider:200}")
+    private int appointmentsPerProvider;
+
+    @Value("${seed.synthetic.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${seed.synthetic.random-seed:42}")
+    private long randomSeed;
+
+    @Value("${scheduling.day-start:08:00}")
+    private LocalTime dayStart;
+
+    @Value("${scheduling.day-end:18:00}")
+    private LocalTime dayEnd;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void run(String... args) {
+        if (patients <= 0) {
+            return;
+        }
+        if (alreadySeeded()) {
+            log.info("Synthetic data already present ({} found), skipping generation", String.format(PATIENT_ID_FORMAT, 1));
+            return;
+        }
+        long started = System.nanoTime();
+        Random random = new Random(randomSeed);
+        List<String> providerNames = providerNames();
+
+        long[] patientIds = generatePatients(random, providerNames);
+        long appointments = generateAppointments(random, providerNames, patientIds);
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        long rows = patientIds.length * (2L + notesPerPatient) + appointments;
+        log.info("Generated {} patients, {} progress notes, {} appointments across {} providers: {} rows in {} ms ({} rows/s)",
+                patientIds.length, (long) patientIds.length * notesPerPatient, appointments, providerNames.size(),
+                rows, elapsedMillis, rows * 1000 / elapsedMillis);
+    }
+
+    private boolean alreadySeeded() {
+        Integer found = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patients WHERE patient_id = ?",
+                Integer.class, String.format(PATIENT_ID_FORMAT, 1));
+        return found != null && found > 0;
+    }
+
+    /**
+     * Patients in chunks of batch-size, each chunk committed with its care
+     * plans (one per patient) and progress notes. Returns the new patient ids.
+     */
+    private long[] generatePatients(Random random, List<String> providerNames) {
+        IdBlocks patientIdBlocks = new IdBlocks("patients_seq");
+        IdBlocks carePlanIdBlocks = new IdBlocks("care_plans_seq");
+        IdBlocks noteIdBlocks = new IdBlocks("progress_notes_seq");
+        long[] ids = new long[patients];
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int from = 0; from < patients; from += batchSize) {
+            int to = Math.min(patients, from + batchSize);
+            List<Object[]> patientRows = new ArrayList<>(to - from);
+            List<Object[]> carePlanRows = new ArrayList<>(to - from);
+            List<Object[]> noteRows = new ArrayList<>((to - from) * notesPerPatient);
+            for (int i = from; i < to; i++) {
+                long id = patientIdBlocks.next();
+                ids[i] = id;
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                String name = first + " " + last;
+                patientRows.add(new Object[]{id, name, Patient.toNameKey(name), String.format(PATIENT_ID_FORMAT, i + 1),
+                        LocalDate.of(1930, 1, 1).plusDays(random.nextInt(90 * 365)),
+                        random.nextBoolean() ? "Male" : "Female",
+                        String.format("555-%04d", random.nextInt(10_000)),
+                        (first + "." + last + "." + (i + 1) + "@example.com").toLowerCase(),
+                        (1 + random.nextInt(9999)) + " " + STREETS[random.nextInt(STREETS.length)] + ", Springfield"});
+
+                String[] plan = CARE_PLANS[random.nextInt(CARE_PLANS.length)];
+                LocalDate planStart = now.toLocalDate().minusDays(random.nextInt(365));
+                carePlanRows.add(new Object[]{carePlanIdBlocks.next(), plan[0], plan[1], plan[2], planStart,
+                        planStart.plusMonths(3 + random.nextInt(4)),
+                        CARE_PLAN_STATUSES[random.nextInt(CARE_PLAN_STATUSES.length)], 0L, id});
+
+                for (int n = 0; n < notesPerPatient; n++) {
+                    String note = NOTES[random.nextInt(NOTES.length)].write(random);
+                    noteRows.add(new Object[]{noteIdBlocks.next(), note,
+                            now.minusMinutes(random.nextInt(2 * 365 * 24 * 60)),
+                            providerNames.get(random.nextInt(providerNames.size())),
+                            NOTE_TYPES[random.nextInt(NOTE_TYPES.length)], id});
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate("INSERT INTO patients (id, name, name_key, patient_id, date_of_birth, gender, "
+                        + "contact_number, email, address) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", patientRows);
+                jdbcTemplate.batchUpdate("INSERT INTO care_plans (id, goals, interventions, medications, start_date, "
+                        + "review_date, status, version, patient_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", carePlanRows);
+                jdbcTemplate.batchUpdate("INSERT INTO progress_notes (id, note, date_time, provider, note_type, patient_id) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)", noteRows);
+            });
+            log.info("Generated {} of {} patients", to, patients);
+        }
+        return ids;
+    }
+
+    /**
+     * Books each provider's slots from a few weeks back onwards, about three
+     * in four slots per working day, each with a random patient. Past
+     * appointments are completed; a few of every kind are cancelled.
+     */
+    private long generateAppointments(Random random, List<String> providerNames, long[] patientIds) {
+        IdBlocks appointmentIdBlocks = new IdBlocks("appointments_seq");
+        int slotMinutes = Appointment.DEFAULT_DURATION_MINUTES;
+        int slotsPerDay = Math.max(1, (int) (Duration.between(dayStart, dayEnd).toMinutes() / slotMinutes));
+        // Roughly half the days fall before today
+        long days = (long) Math.ceil(appointmentsPerProvider / (slotsPerDay * 0.75));
+        LocalDate firstDay = LocalDate.now().minusDays(days / 2);
+        LocalDateTime now = LocalDateTime.now();
+
+        long generated = 0;
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        for (String provider : providerNames) {
+            int booked = 0;
+            for (long slot = 0; booked < appointmentsPerProvider; slot++) {
+                if (random.nextInt(4) == 0) {
+                    continue;
+                }
+                LocalDateTime time = firstDay.plusDays(slot / slotsPerDay)
+                        .atTime(dayStart).plusMinutes((slot % slotsPerDay) * slotMinutes);
+                String status = random.nextInt(20) == 0 ? "Cancelled" : time.isBefore(now) ? "Completed" : "Scheduled";
+                rows.add(new Object[]{appointmentIdBlocks.next(), time, slotMinutes,
+                        REASONS[random.nextInt(REASONS.length)], status, provider, 0L,
+                        patientIds[random.nextInt(patientIds.length)]});
+                booked++;
+                if (rows.size() == batchSize) {
+                    generated += insertAppointments(rows);
+                    rows.clear();
+                }
+            }
+        }
+        if (!rows.isEmpty()) {
+            generated += insertAppointments(rows);
+        }
+        return generated;
+    }
+
+    private int insertAppointments(List<Object[]> rows) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                "INSERT INTO appointments (id, appointment_date, duration_minutes, reason, status, provider, version, "
+                        + "patient_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows));
+        return rows.size();
+    }
+
+    private List<String> providerNames() {
+        List<String> names = new ArrayList<>(providers);
+        for (int i = 0; i < providers; i++) {
+            String name = "Dr. " + FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length];
+            names.add(i < FIRST_NAMES.length * LAST_NAMES.length ? name : name + " " + (i + 1));
+        }
+        return names;
+    }
+
+    private record NoteTemplate(String format, int min1, int max1, int min2, int max2) {
+        String write(Random random) {
+            return String.format(format, min1 + random.nextInt(max1 - min1 + 1), min2 + random.nextInt(max2 - min2 + 1));
+        }
+    }
+
+    /**
+     * Hands out ids from one sequence. Each sequence value v covers the ids
+     * v - ID_BLOCK + 1 to v, exactly as Hibernate's pooled optimizer reads it.
+     */
+    private class IdBlocks {
+
+        private final String nextValueSql;
+        private long next = 1;
+        private long last = 0;
+
+        IdBlocks(String sequence) {
+            nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices()
+                    .getDialect().getSequenceSupport().getSequenceNextValString(sequence);
+        }
+
+        long next() {
+            if (next > last) {
+                long value;
+                // Values below a full block are the sequence's first; Hibernate treats those specially
+                do {
+                    value = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+                } while (value < ID_BLOCK);
+                next = value - ID_BLOCK + 1;
+                last = value;
+            }
+            return next++;
+        }
+    }
+}
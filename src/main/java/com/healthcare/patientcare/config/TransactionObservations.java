@@ -0,0 +1,67 @@
+package com.healthcare.patientcare.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opens a "transaction" span for every new transaction, from begin to commit
+ * or rollback, so time inside @Transactional boundaries (including waiting for
+ * a connection) shows up between the MCP dispatch span and its SQL spans.
+ * Spring Boot registers it with the JPA transaction manager.
+ */
+@Component
+public class TransactionObservations implements TransactionExecutionListener {
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    // Keyed by identity: begin and completion see the same status object on the same thread
+    private final Map<TransactionExecution, Observation.Scope> open = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeBegin(TransactionExecution transaction) {
+        Observation observation = Observation.createNotStarted("transaction", observationRegistry)
+                .lowCardinalityKeyValue("tx.read-only", String.valueOf(transaction.isReadOnly()))
+                .highCardinalityKeyValue("tx.name", String.valueOf(transaction.getTransactionName()))
+                .start();
+        open.put(transaction, observation.openScope());
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null) {
+            close(transaction, "begin", beginFailure);
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        close(transaction, "commit", commitFailure);
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        close(transaction, "rollback", rollbackFailure);
+    }
+
+    private void close(TransactionExecution transaction, String outcome, Throwable failure) {
+        Observation.Scope scope = open.remove(transaction);
+        if (scope == null) {
+            return;
+        }
+        Observation observation = scope.getCurrentObservation();
+        scope.close();
+        observation.lowCardinalityKeyValue("tx.outcome", outcome);
+        if (failure != null) {
+            observation.error(failure);
+        }
+        observation.stop();
+    }
+}
@@ -1,11 +1,24 @@
 package com.healthcare.patientcare.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.patientcare.dto.response.AgendaChangesResponseDTO;
+import com.healthcare.patientcare.dto.response.AgendaResponseDTO;
+import com.healthcare.patientcare.dto.response.AppointmentEntryDTO;
+import com.healthcare.patientcare.dto.response.AvailableSlotDTO;
+import com.healthcare.patientcare.dto.response.CursorPageResponseDTO;
 import com.healthcare.patientcare.entity.Appointment;
 import com.healthcare.patientcare.service.AppointmentService;
+import com.healthcare.patientcare.service.IdempotencyKeyReuseException;
+import com.healthcare.patientcare.service.IdempotencyStore;
+import com.healthcare.patientcare.service.SchedulingConflictException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,9 +30,28 @@ public class AppointmentController {
     @Autowired
     private AppointmentService appointmentService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
     @GetMapping
-    public ResponseEntity<List<Appointment>> getAll() {
-        return ResponseEntity.ok(appointmentService.getAllAppointments());
+    public ResponseEntity<StreamingResponseBody> getAll() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonArrayStream.of(objectMapper, appointmentService::streamAllAppointments));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageResponseDTO<Appointment>> getPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(appointmentService.getAppointmentsPage(cursor, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
@@ -35,37 +67,88 @@ public class AppointmentController {
     }
 
     @GetMapping("/range")
-    public ResponseEntity<List<Appointment>> getByRange(
+    public ResponseEntity<List<AppointmentEntryDTO>> getByRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
         return ResponseEntity.ok(appointmentService.getAppointmentsBetween(start, end));
     }
 
+    @GetMapping("/agenda")
+    public ResponseEntity<AgendaResponseDTO> getAgenda(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String provider) {
+        return ResponseEntity.ok(appointmentService.getAgenda(start, end, provider));
+    }
+
+    @GetMapping("/agenda/changes")
+    public ResponseEntity<AgendaChangesResponseDTO> getAgendaChanges(
+            @RequestParam long since,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String provider) {
+        return ResponseEntity.ok(appointmentService.getAgendaChanges(since, start, end, provider));
+    }
+
+    @GetMapping("/available-slots")
+    public ResponseEntity<List<AvailableSlotDTO>> getAvailableSlots(
+            @RequestParam String provider,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "30") int durationMinutes,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(appointmentService.findAvailableSlots(provider, from, to, durationMinutes, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping
     public ResponseEntity<Appointment> create(
             @RequestParam Long patientId,
-            @RequestBody Appointment appointment) {
-        Appointment created = appointmentService.createAppointment(patientId, appointment);
-        return ResponseEntity.ok(created);
+            @RequestBody Appointment appointment,
+            @RequestHeader(value = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
+        try {
+            Appointment created = idempotencyStore.execute("POST /api/appointments?patientId=" + patientId, idempotencyKey,
+                    appointment, () -> appointmentService.createAppointment(patientId, appointment));
+            return ResponseEntity.ok(created);
+        } catch (SchedulingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IdempotencyKeyReuseException e) {
+            return ResponseEntity.unprocessableEntity().build();
+        }
     }
 
+    // A version in the body makes the update conditional on the appointment not having changed since
     @PutMapping("/{id}")
     public ResponseEntity<Appointment> update(
             @PathVariable Long id,
-            @RequestBody Appointment appointment) {
+            @RequestBody Appointment appointment,
+            @RequestHeader(value = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
         try {
-            Appointment updated = appointmentService.updateAppointment(id, appointment);
+            Appointment updated = idempotencyStore.execute("PUT /api/appointments/" + id, idempotencyKey,
+                    appointment, () -> appointmentService.updateAppointment(id, appointment));
             return ResponseEntity.ok(updated);
+        } catch (SchedulingConflictException | OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IdempotencyKeyReuseException e) {
+            return ResponseEntity.unprocessableEntity().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     @PostMapping("/{id}/cancel")
-    public ResponseEntity<Appointment> cancel(@PathVariable Long id) {
+    public ResponseEntity<Appointment> cancel(
+            @PathVariable Long id,
+            @RequestHeader(value = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
         try {
-            Appointment cancelled = appointmentService.cancelAppointment(id);
+            Appointment cancelled = idempotencyStore.execute("POST /api/appointments/" + id + "/cancel", idempotencyKey,
+                    id, () -> appointmentService.cancelAppointment(id));
             return ResponseEntity.ok(cancelled);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
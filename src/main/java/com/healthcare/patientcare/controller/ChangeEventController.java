@@ -0,0 +1,122 @@
+package com.healthcare.patientcare.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.patientcare.dto.response.ChangeEventDTO;
+import com.healthcare.patientcare.dto.response.ChangeEventsResponseDTO;
+import com.healthcare.patientcare.service.ChangeEventLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Subscriptions to the change event log. Consumers keep the offset of the
+ * last event they handled and pass it back to resume: as {@code after} when
+ * long polling, or as the Last-Event-ID header that EventSource sends when it
+ * reconnects to the stream.
+ */
+@RestController
+@RequestMapping("/api/events")
+public class ChangeEventController {
+
+    private static final long MAX_WAIT_MS = 60_000;
+
+    @Autowired
+    private ChangeEventLog changeEventLog;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${events.sse.timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    // Answers at once when there are events after the offset, otherwise waits up to waitMs for some
+    @GetMapping
+    public DeferredResult<ChangeEventsResponseDTO> poll(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "0") long waitMs) {
+        long wait = Math.max(0, Math.min(waitMs, MAX_WAIT_MS));
+        ChangeEventsResponseDTO page = changeEventLog.read(after, limit, type);
+        if (!page.getEvents().isEmpty() || page.isReset() || wait == 0) {
+            DeferredResult<ChangeEventsResponseDTO> result = new DeferredResult<>();
+            result.setResult(page);
+            return result;
+        }
+
+        DeferredResult<ChangeEventsResponseDTO> result =
+                new DeferredResult<>(wait, () -> changeEventLog.read(after, limit, type));
+        Runnable check = () -> {
+            ChangeEventsResponseDTO next = changeEventLog.read(after, limit, type);
+            if (!next.getEvents().isEmpty()) {
+                result.setResult(next);
+            }
+        };
+        result.onCompletion(changeEventLog.subscribe(check));
+        // Events published before the subscription took effect would otherwise wait for the next ones
+        check.run();
+        return result;
+    }
+
+    // Without Last-Event-ID or after, the stream starts with the next change
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) String type,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long start = lastEventId != null ? lastEventId : after != null ? after : changeEventLog.lastOffset();
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        EventStream stream = new EventStream(emitter, start, type);
+        Runnable unsubscribe = changeEventLog.subscribe(stream::drain);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        stream.drain();
+        return emitter;
+    }
+
+    // Sends what the log holds past the stream's offset; one drain at a time keeps events in order
+    private class EventStream {
+
+        private final SseEmitter emitter;
+        private final String type;
+        private final ReentrantLock lock = new ReentrantLock();
+        private long offset;
+
+        EventStream(SseEmitter emitter, long offset, String type) {
+            this.emitter = emitter;
+            this.offset = offset;
+            this.type = type;
+        }
+
+        void drain() {
+            lock.lock();
+            try {
+                ChangeEventsResponseDTO page;
+                do {
+                    page = changeEventLog.read(offset, ChangeEventLog.MAX_PAGE_SIZE, type);
+                    if (page.isReset()) {
+                        emitter.send(SseEmitter.event().name("reset").data(page.getNextOffset()));
+                    }
+                    for (ChangeEventDTO event : page.getEvents()) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.getOffset()))
+                                .data(objectMapper.writeValueAsString(event)));
+                    }
+                    offset = page.getNextOffset();
+                } while (page.getEvents().size() == ChangeEventLog.MAX_PAGE_SIZE);
+            } catch (IOException | IllegalStateException e) {
+                // The client has gone; the emitter's callbacks unsubscribe it
+                emitter.completeWithError(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
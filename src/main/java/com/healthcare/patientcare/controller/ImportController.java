@@ -0,0 +1,75 @@
+package com.healthcare.patientcare.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.patientcare.service.BulkImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Bulk import of patients, progress notes and appointments. The request body
+ * is read as it arrives and the response streams one NDJSON progress line per
+ * committed batch, followed by the final report.
+ */
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostMapping(value = "/{kind}", consumes = {NDJSON, CSV}, produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> importRecords(
+            @PathVariable String kind,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        BulkImportService.Kind importKind;
+        try {
+            importKind = BulkImportService.Kind.parse(kind);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        BulkImportService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType(CSV))
+                ? BulkImportService.Format.CSV
+                : BulkImportService.Format.NDJSON;
+
+        StreamingResponseBody response = out -> {
+            try {
+                Object report = bulkImportService.importRecords(importKind, format,
+                        new InputStreamReader(body, StandardCharsets.UTF_8),
+                        progress -> writeLine(out, progress));
+                writeLine(out, report);
+            } catch (RuntimeException e) {
+                writeLine(out, Map.of("error", String.valueOf(e.getMessage())));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(response);
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
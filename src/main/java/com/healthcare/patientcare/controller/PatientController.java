@@ -1,12 +1,23 @@
 package com.healthcare.patientcare.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.patientcare.dto.response.ClinicalTextHitDTO;
+import com.healthcare.patientcare.dto.response.CursorPageResponseDTO;
+import com.healthcare.patientcare.dto.response.PatientSearchResultDTO;
+import com.healthcare.patientcare.dto.response.PatientSummaryResponseDTO;
 import com.healthcare.patientcare.entity.Patient;
 import com.healthcare.patientcare.entity.ProgressNote;
 import com.healthcare.patientcare.entity.CarePlan;
+import com.healthcare.patientcare.service.IdempotencyKeyReuseException;
+import com.healthcare.patientcare.service.IdempotencyStore;
 import com.healthcare.patientcare.service.PatientService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 
 @RestController
@@ -16,9 +27,44 @@ public class PatientController {
     @Autowired
     private PatientService patientService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
     @GetMapping
-    public ResponseEntity<List<Patient>> getAllPatients() {
-        return ResponseEntity.ok(patientService.getAllPatients());
+    public ResponseEntity<StreamingResponseBody> getAllPatients() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonArrayStream.of(objectMapper, patientService::streamAllPatients));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageResponseDTO<PatientSummaryResponseDTO>> getPatientsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(patientService.getPatientsPage(cursor, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<PatientSearchResultDTO>> searchPatients(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(patientService.searchPatients(query, limit));
+    }
+
+    @GetMapping("/clinical-search")
+    public ResponseEntity<List<ClinicalTextHitDTO>> searchClinicalText(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long patientId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(patientService.searchClinicalText(query, type, patientId, limit));
     }
 
     @GetMapping("/by-name/{name}")
@@ -48,31 +94,49 @@ public class PatientController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // A version in the body makes the update conditional on the plan not having changed since
     @PostMapping("/{id}/care-plan")
     public ResponseEntity<CarePlan> updateCarePlan(
             @PathVariable Long id,
-            @RequestBody CarePlan carePlan) {
+            @RequestBody CarePlan carePlan,
+            @RequestHeader(value = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
         try {
-            CarePlan updated = patientService.updateCarePlan(id, carePlan);
+            CarePlan updated = idempotencyStore.execute("POST /api/patients/" + id + "/care-plan", idempotencyKey,
+                    carePlan, () -> patientService.updateCarePlan(id, carePlan));
             return ResponseEntity.ok(updated);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IdempotencyKeyReuseException e) {
+            return ResponseEntity.unprocessableEntity().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     @PostMapping
-    public ResponseEntity<Patient> createPatient(@RequestBody Patient patient) {
-        Patient created = patientService.createPatient(patient);
-        return ResponseEntity.ok(created);
+    public ResponseEntity<Patient> createPatient(
+            @RequestBody Patient patient,
+            @RequestHeader(value = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
+        try {
+            Patient created = idempotencyStore.execute("POST /api/patients", idempotencyKey,
+                    patient, () -> patientService.createPatient(patient));
+            return ResponseEntity.ok(created);
+        } catch (IdempotencyKeyReuseException e) {
+            return ResponseEntity.unprocessableEntity().build();
+        }
     }
 
     @PostMapping("/{id}/progress-notes")
     public ResponseEntity<ProgressNote> addProgressNote(
             @PathVariable Long id,
-            @RequestBody ProgressNote note) {
+            @RequestBody ProgressNote note,
+            @RequestHeader(value = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
         try {
-            ProgressNote created = patientService.addProgressNote(id, note);
+            ProgressNote created = idempotencyStore.execute("POST /api/patients/" + id + "/progress-notes", idempotencyKey,
+                    note, () -> patientService.addProgressNote(id, note));
             return ResponseEntity.ok(created);
+        } catch (IdempotencyKeyReuseException e) {
+            return ResponseEntity.unprocessableEntity().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -0,0 +1,38 @@
+package com.healthcare.patientcare.controller;
+
+import com.healthcare.patientcare.config.RecentSpans;
+import com.healthcare.patientcare.dto.response.SpanDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/** Recently finished traces, from the in-memory span exporter. */
+@RestController
+@RequestMapping("/api/traces")
+public class TraceController {
+
+    private static final int MAX_TRACES = 200;
+
+    @Autowired
+    private RecentSpans recentSpans;
+
+    /** Root spans of the latest traces, newest first. */
+    @GetMapping
+    public ResponseEntity<List<SpanDTO>> getRecentTraces(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(recentSpans.recentRoots(Math.max(1, Math.min(limit, MAX_TRACES))).stream()
+                .map(SpanDTO::from)
+                .toList());
+    }
+
+    /** Every span of one trace still held, in start order. */
+    @GetMapping("/{traceId}")
+    public ResponseEntity<List<SpanDTO>> getTrace(@PathVariable String traceId) {
+        List<SpanDTO> spans = recentSpans.trace(traceId).stream().map(SpanDTO::from).toList();
+        if (spans.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(spans);
+    }
+}
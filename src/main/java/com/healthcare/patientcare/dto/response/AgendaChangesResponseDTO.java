@@ -0,0 +1,22 @@
+package com.healthcare.patientcare.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * What changed in a window since a given agenda version: appointments added
+ * or modified, and ids that were deleted or moved out of the window. When
+ * reset is true the version is too old (or from before a restart) and the
+ * caller should fetch the window again in full.
+ */
+@Data
+@AllArgsConstructor
+public class AgendaChangesResponseDTO {
+
+    private long version;
+    private boolean reset;
+    private List<AppointmentEntryDTO> updated;
+    private List<Long> removed;
+}
@@ -0,0 +1,18 @@
+package com.healthcare.patientcare.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Appointments in a window, with the agenda version they reflect. Pass the
+ * version to the changes endpoint to fetch only what has changed since.
+ */
+@Data
+@AllArgsConstructor
+public class AgendaResponseDTO {
+
+    private long version;
+    private List<AppointmentEntryDTO> appointments;
+}
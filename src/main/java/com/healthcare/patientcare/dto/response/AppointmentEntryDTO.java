@@ -0,0 +1,31 @@
+package com.healthcare.patientcare.dto.response;
+
+import com.healthcare.patientcare.entity.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * An appointment as held by the in-memory agenda: the entity's own fields plus
+ * the id of its patient, detached from any persistence context.
+ */
+@Data
+@AllArgsConstructor
+public class AppointmentEntryDTO {
+
+    private Long id;
+    private Long patientId;
+    private LocalDateTime appointmentDate;
+    private Integer durationMinutes;
+    private String reason;
+    private String status;
+    private String provider;
+    private Long version;
+
+    public static AppointmentEntryDTO from(Appointment appointment) {
+        return new AppointmentEntryDTO(appointment.getId(), appointment.getPatient().getId(),
+                appointment.getAppointmentDate(), appointment.getDurationMinutes(), appointment.getReason(),
+                appointment.getStatus(), appointment.getProvider(), appointment.getVersion());
+    }
+}
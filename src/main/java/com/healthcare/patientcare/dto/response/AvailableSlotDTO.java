@@ -0,0 +1,15 @@
+package com.healthcare.patientcare.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/** A free stretch of a provider's working day, long enough for the requested duration. */
+@Data
+@AllArgsConstructor
+public class AvailableSlotDTO {
+
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
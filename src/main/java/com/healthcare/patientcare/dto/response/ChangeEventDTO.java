@@ -0,0 +1,33 @@
+package com.healthcare.patientcare.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.healthcare.patientcare.entity.ChangeEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the change event log. type is aggregate and event together,
+ * e.g. appointment.cancelled; payload is the aggregate after the change, or
+ * null when it was deleted.
+ */
+@Data
+@AllArgsConstructor
+public class ChangeEventDTO {
+
+    private long offset;
+    private String type;
+    private String aggregateType;
+    private Long aggregateId;
+    private Long patientId;
+    private LocalDateTime occurredAt;
+    @JsonRawValue
+    private String payload;
+
+    public static ChangeEventDTO from(ChangeEvent event) {
+        return new ChangeEventDTO(event.getLogOffset(), event.getAggregateType() + "." + event.getEventType(),
+                event.getAggregateType(), event.getAggregateId(), event.getPatientId(), event.getOccurredAt(),
+                event.getPayload());
+    }
+}
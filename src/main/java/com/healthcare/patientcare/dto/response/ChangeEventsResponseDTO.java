@@ -0,0 +1,20 @@
+package com.healthcare.patientcare.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Events after a given offset. Pass nextOffset as the next request's after
+ * to resume. When reset is true, events after the requested offset have
+ * already been pruned and the caller should resynchronise in full.
+ */
+@Data
+@AllArgsConstructor
+public class ChangeEventsResponseDTO {
+
+    private long nextOffset;
+    private boolean reset;
+    private List<ChangeEventDTO> events;
+}
@@ -0,0 +1,23 @@
+package com.healthcare.patientcare.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * A progress note or care plan matching a clinical text search. Highlights map
+ * each matching field to a snippet with the matched terms wrapped in &lt;b&gt;.
+ */
+@Data
+@AllArgsConstructor
+public class ClinicalTextHitDTO {
+
+    private String type;
+    private Long id;
+    private Long patientId;
+    private LocalDateTime dateTime;
+    private float score;
+    private Map<String, String> highlights;
+}
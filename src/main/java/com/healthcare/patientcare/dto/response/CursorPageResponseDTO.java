@@ -0,0 +1,48 @@
+package com.healthcare.patientcare.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. Pass nextCursor back as the cursor to
+ * fetch the following page; it is null once the listing is exhausted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponseDTO<T> {
+
+    private List<T> items;
+
+    private String nextCursor;
+
+    /**
+     * Builds a page from up to limit + 1 rows ordered by id; the extra row only
+     * signals that another page exists.
+     */
+    public static <T> CursorPageResponseDTO<T> fromRows(List<T> rows, int limit, Function<T, Long> idOf) {
+        if (rows.size() <= limit) {
+            return new CursorPageResponseDTO<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPageResponseDTO<>(items, String.valueOf(idOf.apply(items.get(limit - 1))));
+    }
+
+    /**
+     * @return the id to continue after; 0 for the first page
+     */
+    public static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.healthcare.patientcare.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Only the first failures are listed in detail;
+ * failureCount always holds the full number.
+ */
+@Data
+@NoArgsConstructor
+public class ImportReportResponseDTO {
+
+    private String kind;
+    private String format;
+    private long records;
+    private long imported;
+    private long failureCount;
+    private int batches;
+    private long elapsedMillis;
+    private List<Failure> failures = new ArrayList<>();
+
+    /** A record that was not imported, identified by the line it starts on. */
+    @Data
+    @AllArgsConstructor
+    public static class Failure {
+        private long line;
+        private String error;
+    }
+
+    /** Emitted after each committed batch while an import runs. */
+    @Data
+    @AllArgsConstructor
+    public static class BatchProgress {
+        private int batch;
+        private int records;
+        private int imported;
+        private int failed;
+        private long totalImported;
+        private long totalFailed;
+    }
+}
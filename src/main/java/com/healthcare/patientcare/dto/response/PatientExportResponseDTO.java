@@ -0,0 +1,26 @@
+package com.healthcare.patientcare.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.healthcare.patientcare.entity.Appointment;
+import com.healthcare.patientcare.entity.CarePlan;
+import com.healthcare.patientcare.entity.ProgressNote;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One patient's full record as written by the export: demographics, care
+ * plan, progress notes and appointments, each list in chronological order.
+ */
+@Data
+@AllArgsConstructor
+public class PatientExportResponseDTO {
+
+    @JsonUnwrapped
+    private PatientSummaryResponseDTO patient;
+
+    private CarePlan carePlan;
+    private List<ProgressNote> progressNotes;
+    private List<Appointment> appointments;
+}
@@ -0,0 +1,20 @@
+package com.healthcare.patientcare.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One search_patients hit: the patient summary plus how many edits the query
+ * needed to match. A distance of 0 means every query word is a prefix of the
+ * patient's name or patient ID.
+ */
+@Data
+@AllArgsConstructor
+public class PatientSearchResultDTO {
+
+    @JsonUnwrapped
+    private PatientSummaryResponseDTO patient;
+
+    private int distance;
+}
@@ -0,0 +1,31 @@
+package com.healthcare.patientcare.dto.response;
+
+import com.healthcare.patientcare.entity.Patient;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Patient demographics without notes, care plan or appointments. Listings are
+ * projected straight into this type, so no associations are ever loaded for them.
+ */
+@Data
+@AllArgsConstructor
+public class PatientSummaryResponseDTO {
+
+    private Long id;
+    private String name;
+    private String patientId;
+    private LocalDate dateOfBirth;
+    private String gender;
+    private String contactNumber;
+    private String email;
+    private String address;
+
+    public static PatientSummaryResponseDTO from(Patient patient) {
+        return new PatientSummaryResponseDTO(patient.getId(), patient.getName(), patient.getPatientId(),
+                patient.getDateOfBirth(), patient.getGender(), patient.getContactNumber(),
+                patient.getEmail(), patient.getAddress());
+    }
+}
@@ -0,0 +1,37 @@
+package com.healthcare.patientcare.dto.response;
+
+import io.opentelemetry.sdk.trace.data.SpanData;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/** A finished span as held by the in-memory exporter. */
+@Data
+@AllArgsConstructor
+public class SpanDTO {
+
+    private String traceId;
+    private String spanId;
+    private String parentSpanId;
+    private String name;
+    private long startEpochMicros;
+    private double durationMillis;
+    private String status;
+    private Map<String, String> attributes;
+
+    public static SpanDTO from(SpanData span) {
+        Map<String, String> attributes = new TreeMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), String.valueOf(value)));
+        return new SpanDTO(
+                span.getTraceId(),
+                span.getSpanId(),
+                span.getParentSpanContext().isValid() ? span.getParentSpanId() : null,
+                span.getName(),
+                span.getStartEpochNanos() / 1_000,
+                (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000_000.0,
+                span.getStatus().getStatusCode().name(),
+                attributes);
+    }
+}
@@ -0,0 +1,29 @@
+package com.healthcare.patientcare.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * One MCP tool's recorded calls since startup. Latency percentiles are
+ * approximations over a sliding window of recent calls.
+ */
+@Data
+@AllArgsConstructor
+public class ToolMetricsDTO {
+
+    private String tool;
+    private long calls;
+    private long errors;
+    private double meanMillis;
+    private double maxMillis;
+    private double p50Millis;
+    private double p95Millis;
+    private double p99Millis;
+    private double meanConversionMicros;
+    private double meanSerializationMicros;
+    private double meanResultBytes;
+    private double maxResultBytes;
+    private Map<String, Long> errorsByType;
+}
@@ -9,18 +9,27 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_date", columnList = "appointment_date"),
+        @Index(name = "idx_appointments_provider_date", columnList = "provider, appointment_date"),
+        @Index(name = "idx_appointments_patient_date", columnList = "patient_id, appointment_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Appointment {
 
+    public static final int DEFAULT_DURATION_MINUTES = 30;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = 100)
     private Long id;
 
     private LocalDateTime appointmentDate;
 
+    private Integer durationMinutes;
+
     @Column(length = 2000)
     private String reason;
 
@@ -28,8 +37,20 @@ public class Appointment {
 
     private String provider;
 
+    // Bumped on every update; a write carrying an older value is refused
+    @Version
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
     @JsonIgnore
     private Patient patient;
+
+    @PrePersist
+    @PreUpdate
+    void applyDefaultDuration() {
+        if (durationMinutes == null) {
+            durationMinutes = DEFAULT_DURATION_MINUTES;
+        }
+    }
 }
@@ -15,7 +15,8 @@ import java.time.LocalDate;
 public class CarePlan {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "care_plans_seq")
+    @SequenceGenerator(name = "care_plans_seq", sequenceName = "care_plans_seq", allocationSize = 100)
     private Long id;
 
     @Column(nullable = false, length = 3000)
@@ -32,6 +33,9 @@ public class CarePlan {
 
     private String status; // e.g., "Active", "Under Review", "Completed"
 
+    @Version
+    private Long version;
+
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
     @JsonIgnore
@@ -0,0 +1,47 @@
+package com.healthcare.patientcare.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change to a patient record, written to the outbox in the transaction that
+ * made the change. logOffset stays null until the change has committed and
+ * been published to the event log.
+ */
+@Entity
+@Table(name = "change_events", indexes = {
+        @Index(name = "idx_change_events_occurred_at", columnList = "occurred_at")
+})
+@Data
+@NoArgsConstructor
+public class ChangeEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_events_seq")
+    @SequenceGenerator(name = "change_events_seq", sequenceName = "change_events_seq", allocationSize = 100)
+    private Long id;
+
+    @Column(name = "log_offset", unique = true)
+    private Long logOffset;
+
+    @Column(nullable = false)
+    private String aggregateType;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    private Long patientId;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    // The aggregate as it stood after the change, as JSON; null for deletions
+    @Lob
+    private String payload;
+}
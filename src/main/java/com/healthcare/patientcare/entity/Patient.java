@@ -1,5 +1,6 @@
 package com.healthcare.patientcare.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,21 +8,31 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
-@Table(name = "patients")
+@Table(name = "patients", indexes = {
+        @Index(name = "idx_patients_name_key", columnList = "name_key")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Patient {
 
+    // Pooled sequence ids let Hibernate batch inserts, which IDENTITY columns rule out
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patients_seq")
+    @SequenceGenerator(name = "patients_seq", sequenceName = "patients_seq", allocationSize = 100)
     private Long id;
 
     @Column(nullable = false)
     private String name;
 
+    // Lower-cased copy of name so case-insensitive lookups can use an index
+    @Column(name = "name_key", nullable = false)
+    @JsonIgnore
+    private String nameKey;
+
     @Column(unique = true, nullable = false)
     private String patientId;
 
@@ -39,4 +50,14 @@ public class Patient {
 
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Appointment> appointments = new ArrayList<>();
+
+    public static String toNameKey(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateNameKey() {
+        nameKey = toNameKey(name);
+    }
 }
\ No newline at end of file
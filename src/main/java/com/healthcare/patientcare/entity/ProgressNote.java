@@ -8,14 +8,17 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "progress_notes")
+@Table(name = "progress_notes", indexes = {
+        @Index(name = "idx_progress_notes_patient_date", columnList = "patient_id, date_time")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProgressNote {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "progress_notes_seq")
+    @SequenceGenerator(name = "progress_notes_seq", sequenceName = "progress_notes_seq", allocationSize = 100)
     private Long id;
 
     @Column(nullable = false, length = 2000)
@@ -0,0 +1,256 @@
+package com.healthcare.patientcare.mcp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.patientcare.mcp.session.MCPSession;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Transport-independent JSON-RPC handling shared by the HTTP and streaming endpoints.
+ */
+@Component
+public class MCPDispatcher {
+
+    public static final String PROTOCOL_VERSION = "2024-11-05";
+
+    @Autowired
+    private MCPServer mcpServer;
+
+    @Autowired
+    private MCPMetrics metrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Autowired
+    @Qualifier("mcpBatchExecutor")
+    private Executor batchExecutor;
+
+    public Map<String, Object> dispatch(Map<String, Object> request) {
+        return dispatch(request, null);
+    }
+
+    /**
+     * Parses a JSON-RPC message or batch under its own "mcp.parse" span.
+     *
+     * @return a Map, a List, or null if the body isn't valid JSON
+     */
+    public Object parse(byte[] body) {
+        return Observation.createNotStarted("mcp.parse", observationRegistry)
+                .highCardinalityKeyValue("mcp.body.bytes", String.valueOf(body.length))
+                .observe(() -> {
+                    try {
+                        return objectMapper.readValue(body, Object.class);
+                    } catch (IOException e) {
+                        return null;
+                    }
+                });
+    }
+
+    public Map<String, Object> dispatch(Map<String, Object> request, MCPSession session) {
+        return dispatch(request, session, null);
+    }
+
+    /**
+     * Handles one message under an "mcp.request" span carrying the JSON-RPC
+     * method, id and, for tool calls, the tool name. Fanned-out batch calls
+     * pass the batch's span as {@code parent} since they run on other threads.
+     */
+    private Map<String, Object> dispatch(Map<String, Object> request, MCPSession session, Observation parent) {
+        String method = (String) request.get("method");
+        Object id = request.get("id");
+
+        Observation observation = Observation.createNotStarted("mcp.request", observationRegistry)
+                .parentObservation(parent)
+                .contextualName(String.valueOf(method))
+                .lowCardinalityKeyValue("rpc.system", "jsonrpc")
+                .lowCardinalityKeyValue("rpc.method", String.valueOf(method))
+                .highCardinalityKeyValue("rpc.jsonrpc.request_id", String.valueOf(id));
+        if ("tools/call".equals(method) && request.get("params") instanceof Map<?, ?> params
+                && params.get("name") instanceof String toolName) {
+            // Only registered names become a metric tag; anything else stays a span attribute
+            observation.contextualName("tools/call " + toolName)
+                    .lowCardinalityKeyValue("mcp.tool", mcpServer.hasTool(toolName) ? toolName : "unknown")
+                    .highCardinalityKeyValue("mcp.tool.requested", toolName);
+        }
+        return observation.observe(() -> handle(request, session, method, id));
+    }
+
+    private Map<String, Object> handle(Map<String, Object> request, MCPSession session, String method, Object id) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("jsonrpc", "2.0");
+        response.put("id", id);
+
+        try {
+            switch (method) {
+                case "initialize":
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> initParams = (Map<String, Object>) request.get("params");
+                    response.put("result", handleInitialize(initParams, session));
+                    break;
+
+                case "tools/list":
+                    response.put("result", handleToolsList());
+                    break;
+
+                case "tools/call":
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> params = (Map<String, Object>) request.get("params");
+                    response.put("result", handleToolsCall(params));
+                    break;
+
+                case "metrics":
+                    response.put("result", Map.of("tools", metrics.snapshot()));
+                    break;
+
+                default:
+                    Map<String, Object> error = new HashMap<>();
+                    error.put("code", -32601);
+                    error.put("message", "Method not found: " + method);
+                    response.put("error", error);
+            }
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("code", -32603);
+            error.put("message", "Internal error: " + e.getMessage());
+            response.put("error", error);
+        }
+
+        return response;
+    }
+
+    /**
+     * Handles a JSON-RPC batch. Consecutive read-only tool calls are fanned out on the
+     * batch executor; everything else runs in order on the calling thread, so a read
+     * that follows a write in the batch still observes that write.
+     *
+     * @return responses in request order, without entries for notifications
+     */
+    public List<Map<String, Object>> dispatchBatch(List<?> batch, MCPSession session) {
+        if (batch.isEmpty()) {
+            return List.of(errorResponse(null, -32600, "Invalid Request"));
+        }
+
+        List<CompletableFuture<Map<String, Object>>> pending = new ArrayList<>(batch.size());
+        List<CompletableFuture<Map<String, Object>>> readWave = new ArrayList<>();
+        Observation batchObservation = observationRegistry.getCurrentObservation();
+
+        for (Object element : batch) {
+            if (!(element instanceof Map)) {
+                pending.add(CompletableFuture.completedFuture(errorResponse(null, -32600, "Invalid Request")));
+                continue;
+            }
+
+            @SuppressWarnings("unchecked")
+            Map<String, Object> request = (Map<String, Object>) element;
+
+            if (isReadOnlyToolCall(request)) {
+                CompletableFuture<Map<String, Object>> future =
+                        CompletableFuture.supplyAsync(() -> dispatch(request, session, batchObservation), batchExecutor);
+                readWave.add(future);
+                pending.add(future);
+            } else {
+                awaitAll(readWave);
+                pending.add(CompletableFuture.completedFuture(dispatch(request, session)));
+            }
+        }
+
+        List<Map<String, Object>> responses = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            // Notifications (no id member) get no entry in the batch response
+            if (isNotification(batch.get(i))) {
+                continue;
+            }
+            responses.add(pending.get(i).join());
+        }
+        return responses;
+    }
+
+    public boolean isReadOnlyToolCall(Map<String, Object> request) {
+        if (!"tools/call".equals(request.get("method"))) {
+            return false;
+        }
+        return request.get("params") instanceof Map<?, ?> params
+                && params.get("name") instanceof String toolName
+                && mcpServer.isReadOnlyTool(toolName);
+    }
+
+    public static boolean isNotification(Object request) {
+        return request instanceof Map<?, ?> map && !map.containsKey("id");
+    }
+
+    public static Map<String, Object> errorResponse(Object id, int code, String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("code", code);
+        error.put("message", message);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("jsonrpc", "2.0");
+        response.put("id", id);
+        response.put("error", error);
+        return response;
+    }
+
+    private void awaitAll(List<CompletableFuture<Map<String, Object>>> futures) {
+        if (!futures.isEmpty()) {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            futures.clear();
+        }
+    }
+
+    private Map<String, Object> handleInitialize(Map<String, Object> params, MCPSession session) {
+        if (session != null) {
+            Object clientVersion = params != null ? params.get("protocolVersion") : null;
+            session.markInitialized(clientVersion != null ? clientVersion.toString() : PROTOCOL_VERSION);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("protocolVersion", PROTOCOL_VERSION);
+        result.put("serverInfo", Map.of(
+                "name", "patient-care-system",
+                "version", "1.0.0"
+        ));
+        result.put("capabilities", Map.of(
+                "tools", Map.of()
+        ));
+        return result;
+    }
+
+    private Object handleToolsList() {
+        return mcpServer.getToolsListResult();
+    }
+
+    private Map<String, Object> handleToolsCall(Map<String, Object> params) {
+        String toolName = (String) params.get("name");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> arguments = (Map<String, Object>) params.get("arguments");
+
+        if (arguments == null) {
+            arguments = new HashMap<>();
+        }
+
+        ToolResult toolResult = mcpServer.invokeTool(toolName, arguments);
+
+        Map<String, Object> result = new HashMap<>();
+        List<Map<String, Object>> content = new ArrayList<>();
+
+        Map<String, Object> textContent = new HashMap<>();
+        textContent.put("type", "text");
+        textContent.put("text", toolResult);
+        content.add(textContent);
+
+        result.put("content", content);
+        return result;
+    }
+}
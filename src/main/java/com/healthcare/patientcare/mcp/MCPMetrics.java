@@ -0,0 +1,179 @@
+package com.healthcare.patientcare.mcp;
+
+import com.healthcare.patientcare.dto.response.ToolMetricsDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for MCP tool calls, tagged by tool name: call latency
+ * (with a percentile histogram, for Prometheus) and outcome, time spent
+ * converting arguments and serializing results, result size, and errors by
+ * type. Meters are created once per tool when the registry is built, so
+ * recording a call doesn't look anything up. A gauge also reports how long
+ * building the tool registry took at startup.
+ */
+@Component
+public class MCPMetrics {
+
+    static final String CALLS = "mcp.tool.calls";
+    static final String ARGUMENT_CONVERSION = "mcp.tool.argument.conversion";
+    static final String SERIALIZATION = "mcp.tool.serialization";
+    static final String RESULT_SIZE = "mcp.tool.result.size";
+    static final String ERRORS = "mcp.tool.errors";
+    static final String TOOLS_SCAN_TIME = "mcp.tools.scan.time";
+
+    /** Error types not named after an exception class. */
+    static final String MISSING_PARAMETER = "missing_parameter";
+    static final String INVALID_ARGUMENT = "invalid_argument";
+    static final String TOOL_ERROR = "tool_error";
+    static final String UNKNOWN_TOOL = "unknown_tool";
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private final ConcurrentMap<String, ToolMeters> tools = new ConcurrentSkipListMap<>();
+
+    private volatile long toolsScanNanos;
+
+    @PostConstruct
+    void init() {
+        TimeGauge.builder(TOOLS_SCAN_TIME, this, TimeUnit.NANOSECONDS, metrics -> metrics.toolsScanNanos)
+                .description("Time spent scanning beans and building the MCP tool registry")
+                .register(registry);
+    }
+
+    /** Records how long the latest tool registry build took. */
+    public void recordToolsScan(long nanos) {
+        toolsScanNanos = nanos;
+    }
+
+    /** The meters for one tool, created on first use. */
+    public ToolMeters forTool(String tool) {
+        return tools.computeIfAbsent(tool, ToolMeters::new);
+    }
+
+    /** Counts a call naming a tool that isn't registered; the name isn't used as a tag. */
+    public void unknownTool() {
+        registry.counter(ERRORS, "tool", "", "type", UNKNOWN_TOOL).increment();
+    }
+
+    /** Current figures for every tool, by name. */
+    public List<ToolMetricsDTO> snapshot() {
+        List<ToolMetricsDTO> snapshot = new ArrayList<>(tools.size());
+        for (ToolMeters meters : tools.values()) {
+            snapshot.add(meters.snapshot());
+        }
+        return snapshot;
+    }
+
+    public final class ToolMeters {
+        private final String tool;
+        private final Timer success;
+        private final Timer failure;
+        private final Timer conversion;
+        private final Timer serialization;
+        private final DistributionSummary resultSize;
+        private final ConcurrentMap<String, Counter> errors = new ConcurrentHashMap<>();
+
+        private ToolMeters(String tool) {
+            this.tool = tool;
+            this.success = callTimer(tool, "success");
+            this.failure = callTimer(tool, "error");
+            this.conversion = Timer.builder(ARGUMENT_CONVERSION)
+                    .description("Time spent converting JSON arguments to tool parameter types")
+                    .tag("tool", tool)
+                    .register(registry);
+            this.serialization = Timer.builder(SERIALIZATION)
+                    .description("Time spent serializing tool results to JSON")
+                    .tag("tool", tool)
+                    .register(registry);
+            this.resultSize = DistributionSummary.builder(RESULT_SIZE)
+                    .description("Size of encoded tool results")
+                    .baseUnit("bytes")
+                    .tag("tool", tool)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+
+        public void recordCall(long nanos, ToolResult result) {
+            (result.isError() ? failure : success).record(nanos, TimeUnit.NANOSECONDS);
+            resultSize.record(result.size());
+        }
+
+        public void recordConversion(long nanos) {
+            conversion.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        public void recordSerialization(long nanos) {
+            serialization.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        public void recordError(String type) {
+            errors.computeIfAbsent(type, t -> registry.counter(ERRORS, "tool", tool, "type", t)).increment();
+        }
+
+        private ToolMetricsDTO snapshot() {
+            HistogramSnapshot ok = success.takeSnapshot();
+            HistogramSnapshot failed = failure.takeSnapshot();
+            long calls = ok.count() + failed.count();
+            double totalMillis = ok.total(TimeUnit.MILLISECONDS) + failed.total(TimeUnit.MILLISECONDS);
+            // Percentiles come from successful calls, which is what callers wait on in the normal case
+            HistogramSnapshot latencies = ok.count() > 0 ? ok : failed;
+
+            Map<String, Long> errorsByType = new TreeMap<>();
+            errors.forEach((type, counter) -> errorsByType.put(type, (long) counter.count()));
+
+            return new ToolMetricsDTO(
+                    tool,
+                    calls,
+                    failed.count(),
+                    calls > 0 ? totalMillis / calls : 0,
+                    Math.max(ok.max(TimeUnit.MILLISECONDS), failed.max(TimeUnit.MILLISECONDS)),
+                    percentile(latencies, 0.5),
+                    percentile(latencies, 0.95),
+                    percentile(latencies, 0.99),
+                    conversion.mean(TimeUnit.MICROSECONDS),
+                    serialization.mean(TimeUnit.MICROSECONDS),
+                    resultSize.mean(),
+                    resultSize.max(),
+                    errorsByType);
+        }
+    }
+
+    private Timer callTimer(String tool, String outcome) {
+        return Timer.builder(CALLS)
+                .description("MCP tool call latency, from argument conversion to encoded result")
+                .tags("tool", tool, "outcome", outcome)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static double percentile(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0;
+    }
+}
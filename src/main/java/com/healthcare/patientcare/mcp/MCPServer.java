@@ -1,76 +1,191 @@
 package com.healthcare.patientcare.mcp;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.healthcare.patientcare.mcp.annotation.Tool;
 import com.healthcare.patientcare.mcp.annotation.ToolParam;
+import com.healthcare.patientcare.service.IdempotencyStore;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Component
 public class MCPServer {
 
+    private static final Logger log = LoggerFactory.getLogger(MCPServer.class);
+
+    /** Optional argument accepted by every tool that writes; see {@link IdempotencyStore}. */
+    public static final String IDEMPOTENCY_KEY = "idempotency_key";
+
     @Autowired
     private ApplicationContext applicationContext;
 
     @Autowired
     private ObjectMapper objectMapper;
 
-    private Map<String, ToolMetadata> tools;
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private MCPMetrics metrics;
 
-    public void initializeTools() {
-        if (tools != null) {
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    // Replaced wholesale once the context is refreshed; readers never see a partially built map
+    private volatile Map<String, ToolMetadata> tools = Map.of();
+
+    private volatile ToolsListing toolsListing = new ToolsListing(List.of(), new RawValue("{\"tools\":[]}"), "\"\"");
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        if (event.getApplicationContext() != applicationContext) {
             return;
         }
+        initializeTools();
+    }
+
+    public void initializeTools() {
+        StartupStep step = startupStep("mcp.tools.scan");
+        long start = System.nanoTime();
 
-        tools = new HashMap<>();
+        // Sorted so the tools/list payload and its ETag are stable across restarts
+        Map<String, ToolMetadata> registry = new TreeMap<>();
 
-        // Scan all beans for @Tool annotated methods
+        // Only beans whose class declares @Tool methods are instantiated and inspected
         String[] beanNames = applicationContext.getBeanDefinitionNames();
         for (String beanName : beanNames) {
+            Class<?> beanType = applicationContext.getType(beanName, false);
+            if (beanType == null) {
+                continue;
+            }
+
+            Class<?> userClass = ClassUtils.getUserClass(beanType);
+            Method[] toolMethods = Arrays.stream(userClass.getDeclaredMethods())
+                    .filter(method -> method.isAnnotationPresent(Tool.class))
+                    .toArray(Method[]::new);
+            if (toolMethods.length == 0) {
+                continue;
+            }
+
             Object bean = applicationContext.getBean(beanName);
-            Class<?> beanClass = bean.getClass();
-
-            for (Method method : beanClass.getDeclaredMethods()) {
-                if (method.isAnnotationPresent(Tool.class)) {
-                    Tool toolAnnotation = method.getAnnotation(Tool.class);
-                    String toolName = toolAnnotation.name();
-
-                    ToolMetadata metadata = new ToolMetadata();
-                    metadata.name = toolName;
-                    metadata.description = toolAnnotation.description();
-                    metadata.method = method;
-                    metadata.bean = bean;
-                    metadata.parameters = new ArrayList<>();
-
-                    Parameter[] params = method.getParameters();
-                    for (Parameter param : params) {
-                        if (param.isAnnotationPresent(ToolParam.class)) {
-                            ToolParam toolParam = param.getAnnotation(ToolParam.class);
-                            ParameterMetadata paramMetadata = new ParameterMetadata();
-                            paramMetadata.name = toolParam.name();
-                            paramMetadata.description = toolParam.description();
-                            paramMetadata.required = toolParam.required();
-                            paramMetadata.type = param.getType();
-                            metadata.parameters.add(paramMetadata);
-                        }
+            for (Method method : toolMethods) {
+                Tool toolAnnotation = method.getAnnotation(Tool.class);
+                String toolName = toolAnnotation.name();
+
+                ToolMetadata metadata = new ToolMetadata();
+                metadata.name = toolName;
+                metadata.description = toolAnnotation.description();
+                metadata.readOnly = toolAnnotation.readOnly();
+                metadata.method = method;
+                metadata.bean = bean;
+                metadata.parameters = new ArrayList<>();
+
+                Parameter[] params = method.getParameters();
+                for (Parameter param : params) {
+                    if (param.isAnnotationPresent(ToolParam.class)) {
+                        ToolParam toolParam = param.getAnnotation(ToolParam.class);
+                        ParameterMetadata paramMetadata = new ParameterMetadata();
+                        paramMetadata.name = toolParam.name();
+                        paramMetadata.description = toolParam.description();
+                        paramMetadata.required = toolParam.required();
+                        paramMetadata.type = param.getType();
+                        paramMetadata.converter = converterFor(param.getType());
+                        metadata.parameters.add(paramMetadata);
                     }
-
-                    tools.put(toolName, metadata);
                 }
+
+                metadata.invoker = compileInvoker(bean, method);
+                metadata.meters = metrics.forTool(toolName);
+
+                registry.put(toolName, metadata);
             }
         }
+
+        tools = Collections.unmodifiableMap(registry);
+        toolsListing = buildToolsListing(registry);
+        long scanTimeNanos = System.nanoTime() - start;
+        metrics.recordToolsScan(scanTimeNanos);
+
+        step.tag("tools", String.valueOf(registry.size()));
+        step.tag("scanTimeMillis", String.valueOf(TimeUnit.NANOSECONDS.toMillis(scanTimeNanos)));
+        step.end();
+
+        log.info("Registered {} MCP tools in {} ms", registry.size(),
+                TimeUnit.NANOSECONDS.toMillis(scanTimeNanos));
+    }
+
+    private StartupStep startupStep(String name) {
+        if (applicationContext instanceof ConfigurableApplicationContext configurable) {
+            return configurable.getApplicationStartup().start(name);
+        }
+        return ApplicationStartup.DEFAULT.start(name);
     }
 
     public List<Map<String, Object>> listTools() {
-        initializeTools();
+        return toolsListing.tools;
+    }
 
+    /**
+     * The tools/list result, serialized once at startup and written verbatim into responses.
+     */
+    public RawValue getToolsListResult() {
+        return toolsListing.json;
+    }
+
+    /**
+     * Strong ETag for the current tools/list result, derived from its serialized bytes.
+     */
+    public String getToolsListEtag() {
+        return toolsListing.etag;
+    }
+
+    private ToolsListing buildToolsListing(Map<String, ToolMetadata> registry) {
+        List<Map<String, Object>> toolsList = buildToolsList(registry);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(Map.of("tools", toolsList));
+
+            SerializedString serialized = new SerializedString(new String(json, StandardCharsets.UTF_8));
+            serialized.asUnquotedUTF8();
+
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            String etag = "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+
+            return new ToolsListing(toolsList, new RawValue(serialized), etag);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to precompute tools/list response", e);
+        }
+    }
+
+    private List<Map<String, Object>> buildToolsList(Map<String, ToolMetadata> registry) {
         List<Map<String, Object>> toolsList = new ArrayList<>();
-        for (ToolMetadata metadata : tools.values()) {
+        for (ToolMetadata metadata : registry.values()) {
             Map<String, Object> tool = new HashMap<>();
             tool.put("name", metadata.name);
             tool.put("description", metadata.description);
@@ -78,7 +193,7 @@ public class MCPServer {
             Map<String, Object> inputSchema = new HashMap<>();
             inputSchema.put("type", "object");
 
-            Map<String, Object> properties = new HashMap<>();
+            Map<String, Object> properties = new LinkedHashMap<>();
             List<String> required = new ArrayList<>();
 
             for (ParameterMetadata param : metadata.parameters) {
@@ -91,6 +206,12 @@ public class MCPServer {
                     required.add(param.name);
                 }
             }
+            if (!metadata.readOnly) {
+                Map<String, Object> keySchema = new HashMap<>();
+                keySchema.put("type", "string");
+                keySchema.put("description", "Optional unique key for this call; retrying with the same key returns the first result instead of repeating the change");
+                properties.put(IDEMPOTENCY_KEY, keySchema);
+            }
 
             inputSchema.put("properties", properties);
             if (!required.isEmpty()) {
@@ -98,38 +219,126 @@ public class MCPServer {
             }
 
             tool.put("inputSchema", inputSchema);
-            toolsList.add(tool);
+            toolsList.add(Collections.unmodifiableMap(tool));
         }
 
-        return toolsList;
+        return Collections.unmodifiableList(toolsList);
+    }
+
+    public boolean hasTool(String toolName) {
+        return tools.containsKey(toolName);
+    }
+
+    public boolean isReadOnlyTool(String toolName) {
+        ToolMetadata metadata = tools.get(toolName);
+        return metadata != null && metadata.readOnly;
     }
 
     public String callTool(String toolName, Map<String, Object> arguments) {
-        initializeTools();
+        return invokeTool(toolName, arguments).asText();
+    }
 
+    /**
+     * Runs a tool and encodes its result once. Tools may return a pre-encoded JSON
+     * String or byte[], or any object, which is serialized here as compact JSON.
+     * A write carrying an idempotency_key runs at most once per key; retries get
+     * the first successful result back.
+     */
+    public ToolResult invokeTool(String toolName, Map<String, Object> arguments) {
         ToolMetadata metadata = tools.get(toolName);
         if (metadata == null) {
-            return "{\"error\": \"Tool not found: " + toolName + "\"}";
+            metrics.unknownTool();
+            return errorResult("Tool not found: " + toolName);
         }
 
+        long start = System.nanoTime();
+        ToolResult result = invokeOnce(metadata, arguments);
+        metadata.meters.recordCall(System.nanoTime() - start, result);
+        return result;
+    }
+
+    private ToolResult invokeOnce(ToolMetadata metadata, Map<String, Object> arguments) {
+        Object idempotencyKey = arguments.get(IDEMPOTENCY_KEY);
+        if (metadata.readOnly || idempotencyKey == null) {
+            return invoke(metadata, arguments);
+        }
+        // Sorted so the same arguments always fingerprint the same
+        Map<String, Object> request = new TreeMap<>(arguments);
+        request.remove(IDEMPOTENCY_KEY);
         try {
-            Object[] args = new Object[metadata.parameters.size()];
-            for (int i = 0; i < metadata.parameters.size(); i++) {
-                ParameterMetadata param = metadata.parameters.get(i);
-                Object value = arguments.get(param.name);
+            return idempotencyStore.execute("tool:" + metadata.name, idempotencyKey.toString(), request,
+                    () -> invoke(metadata, request), result -> !result.isError());
+        } catch (RuntimeException e) {
+            metadata.meters.recordError(e.getClass().getSimpleName());
+            return errorResult(e.getMessage());
+        }
+    }
 
-                if (value == null && param.required) {
-                    return "{\"error\": \"Missing required parameter: " + param.name + "\"}";
-                }
+    private ToolResult invoke(ToolMetadata metadata, Map<String, Object> arguments) {
+        long start = System.nanoTime();
+        Object[] args = new Object[metadata.parameters.size()];
+        for (int i = 0; i < metadata.parameters.size(); i++) {
+            ParameterMetadata param = metadata.parameters.get(i);
+            Object value = arguments.get(param.name);
 
-                args[i] = convertValue(value, param.type);
+            if (value == null && param.required) {
+                metadata.meters.recordError(MCPMetrics.MISSING_PARAMETER);
+                return errorResult("Missing required parameter: " + param.name);
             }
 
-            Object result = metadata.method.invoke(metadata.bean, args);
-            return result != null ? result.toString() : "{}";
+            try {
+                args[i] = value != null ? param.converter.apply(value) : null;
+            } catch (RuntimeException e) {
+                metadata.meters.recordError(MCPMetrics.INVALID_ARGUMENT);
+                return errorResult("Error calling tool: " + e.getMessage());
+            }
+        }
+        metadata.meters.recordConversion(System.nanoTime() - start);
+
+        try {
+            Object result = metadata.invoker.invoke(args);
+            if (result == null) {
+                return ToolResult.ofText("{}");
+            }
+            ToolResult toolResult = toToolResult(metadata, result);
+            if (toolResult.isError()) {
+                metadata.meters.recordError(MCPMetrics.TOOL_ERROR);
+            }
+            return toolResult;
 
         } catch (Exception e) {
-            return "{\"error\": \"Error calling tool: " + e.getMessage() + "\"}";
+            metadata.meters.recordError(e.getClass().getSimpleName());
+            return errorResult("Error calling tool: " + e.getMessage());
+        }
+    }
+
+    private ToolResult toToolResult(ToolMetadata metadata, Object result) throws JsonProcessingException {
+        if (result instanceof String text) {
+            return ToolResult.ofText(text);
+        }
+        if (result instanceof byte[] json) {
+            return ToolResult.ofJson(json);
+        }
+        long serializationStart = System.nanoTime();
+        Observation serialization = Observation.createNotStarted("mcp.serialize", observationRegistry)
+                .lowCardinalityKeyValue("mcp.tool", metadata.name)
+                .start();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(result);
+            serialization.highCardinalityKeyValue("mcp.result.bytes", String.valueOf(json.length));
+            return ToolResult.ofJson(json);
+        } finally {
+            serialization.stop();
+            metadata.meters.recordSerialization(System.nanoTime() - serializationStart);
+        }
+    }
+
+    // Encoded by Jackson, as messages can carry client input such as an idempotency key
+    private ToolResult errorResult(String message) {
+        try {
+            return ToolResult.ofJson(objectMapper.writeValueAsBytes(Map.of("error", String.valueOf(message))));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode tool error", e);
         }
     }
 
@@ -141,36 +350,97 @@ public class MCPServer {
         return "string";
     }
 
-    private Object convertValue(Object value, Class<?> targetType) {
-        if (value == null) return null;
-
-        if (targetType.isInstance(value)) {
-            return value;
+    /**
+     * Binds the tool method to its bean once, at registration time, and spreads the
+     * argument array into the target signature so calls skip reflective access checks.
+     */
+    static ToolInvoker compileInvoker(Object bean, Method method) {
+        MethodHandle handle;
+        try {
+            method.setAccessible(true);
+            handle = MethodHandles.lookup().unreflect(method)
+                    .bindTo(bean)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access tool method: " + method, e);
         }
 
-        String strValue = value.toString();
+        return args -> {
+            try {
+                return handle.invokeExact(args);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new UndeclaredThrowableException(t);
+            }
+        };
+    }
 
+    /**
+     * Picks a converter for the parameter type up front so each call only runs the
+     * conversion it needs instead of walking every supported type.
+     */
+    static Function<Object, Object> converterFor(Class<?> targetType) {
         if (targetType == Long.class || targetType == long.class) {
-            return Long.parseLong(strValue);
+            return value -> value instanceof Long ? value
+                    : isIntegral(value) ? (Object) longValueExact(value)
+                    : (Object) Long.parseLong(value.toString());
         }
         if (targetType == Integer.class || targetType == int.class) {
-            return Integer.parseInt(strValue);
+            return value -> value instanceof Integer ? value
+                    : isIntegral(value) ? (Object) Math.toIntExact(longValueExact(value))
+                    : (Object) Integer.parseInt(value.toString());
         }
         if (targetType == Boolean.class || targetType == boolean.class) {
-            return Boolean.parseBoolean(strValue);
+            return value -> value instanceof Boolean ? value : (Object) Boolean.parseBoolean(value.toString());
         }
         if (targetType == Double.class || targetType == double.class) {
-            return Double.parseDouble(strValue);
+            return value -> value instanceof Double ? value
+                    : value instanceof Number ? (Object) ((Number) value).doubleValue()
+                    : (Object) Double.parseDouble(value.toString());
         }
+        if (targetType == String.class) {
+            return value -> value instanceof String ? value : value.toString();
+        }
+        return value -> targetType.isInstance(value) ? value : value.toString();
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte || value instanceof BigInteger;
+    }
+
+    // Out of range values throw, and are reported as invalid arguments rather than wrapping around
+    private static long longValueExact(Object value) {
+        return value instanceof BigInteger big ? big.longValueExact() : ((Number) value).longValue();
+    }
+
+    @FunctionalInterface
+    interface ToolInvoker {
+        Object invoke(Object[] args) throws Exception;
+    }
 
-        return strValue;
+    static class ToolsListing {
+        final List<Map<String, Object>> tools;
+        final RawValue json;
+        final String etag;
+
+        ToolsListing(List<Map<String, Object>> tools, RawValue json, String etag) {
+            this.tools = tools;
+            this.json = json;
+            this.etag = etag;
+        }
     }
 
     static class ToolMetadata {
         String name;
         String description;
+        boolean readOnly;
         Method method;
         Object bean;
+        ToolInvoker invoker;
+        MCPMetrics.ToolMeters meters;
         List<ParameterMetadata> parameters;
     }
 
@@ -179,5 +449,6 @@ public class MCPServer {
         String description;
         boolean required;
         Class<?> type;
+        Function<Object, Object> converter;
     }
 }
\ No newline at end of file
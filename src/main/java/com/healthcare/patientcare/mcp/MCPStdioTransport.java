@@ -0,0 +1,105 @@
+package com.healthcare.patientcare.mcp;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.patientcare.config.MCPConfig;
+import com.healthcare.patientcare.mcp.session.MCPSession;
+import com.healthcare.patientcare.mcp.session.MCPSessionRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves MCP over newline-delimited JSON-RPC on stdin/stdout, for clients that launch
+ * the jar as a subprocess. Requests go straight to the dispatcher; no web server runs.
+ */
+@Component
+@Profile(MCPStdioTransport.PROFILE)
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class MCPStdioTransport implements CommandLineRunner {
+
+    public static final String PROFILE = "stdio";
+
+    @Autowired
+    private MCPDispatcher dispatcher;
+
+    @Autowired
+    private MCPSessionRegistry sessionRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TaskDecorator openEntityManager;
+    private PrintStream protocolOut;
+
+    @PostConstruct
+    void init() {
+        openEntityManager = MCPConfig.openEntityManager(entityManagerFactory);
+
+        // stdout belongs to the protocol; anything else printed by the app goes to stderr
+        protocolOut = new PrintStream(new FileOutputStream(FileDescriptor.out), false, StandardCharsets.UTF_8);
+        System.setOut(System.err);
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        MCPSession session = sessionRegistry.create();
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            Object reply = handleLine(line, session);
+            if (reply != null) {
+                protocolOut.write(objectMapper.writeValueAsBytes(reply));
+                protocolOut.println();
+                protocolOut.flush();
+            }
+        }
+    }
+
+    /**
+     * @return the JSON-RPC response for the line, or null when nothing should be written
+     */
+    Object handleLine(String line, MCPSession session) {
+        Object message;
+        try {
+            message = objectMapper.readValue(line, Object.class);
+        } catch (JsonProcessingException e) {
+            return MCPDispatcher.errorResponse(null, -32700, "Parse error");
+        }
+
+        AtomicReference<Object> reply = new AtomicReference<>();
+        openEntityManager.decorate(() -> {
+            if (message instanceof List<?> batch) {
+                List<Map<String, Object>> responses = dispatcher.dispatchBatch(batch, session);
+                reply.set(responses.isEmpty() ? null : batch.isEmpty() ? responses.get(0) : responses);
+            } else if (message instanceof Map) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> request = (Map<String, Object>) message;
+                Map<String, Object> response = dispatcher.dispatch(request, session);
+                reply.set(MCPDispatcher.isNotification(request) ? null : response);
+            } else {
+                reply.set(MCPDispatcher.errorResponse(null, -32600, "Invalid Request"));
+            }
+        }).run();
+        return reply.get();
+    }
+}
@@ -0,0 +1,74 @@
+package com.healthcare.patientcare.mcp;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The text of a tool result, held as pre-encoded UTF-8 JSON. It is written into the
+ * MCP response as a JSON string straight from the bytes, so a structured result is
+ * encoded once instead of being serialized to a String and serialized again.
+ */
+public final class ToolResult implements JsonSerializable {
+
+    private static final byte[] ERROR_PREFIX = "{\"error\"".getBytes(StandardCharsets.UTF_8);
+
+    private final byte[] utf8;
+
+    private ToolResult(byte[] utf8) {
+        this.utf8 = utf8;
+    }
+
+    public static ToolResult ofJson(byte[] utf8Json) {
+        return new ToolResult(utf8Json);
+    }
+
+    public static ToolResult ofText(String text) {
+        return new ToolResult(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** True for the {"error": ...} objects tools return when they fail. */
+    public boolean isError() {
+        return utf8.length >= ERROR_PREFIX.length
+                && Arrays.equals(utf8, 0, ERROR_PREFIX.length, ERROR_PREFIX, 0, ERROR_PREFIX.length);
+    }
+
+    public int size() {
+        return utf8.length;
+    }
+
+    public String asText() {
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        if (gen instanceof UTF8JsonGenerator) {
+            // Escapes directly from the encoded bytes without building an intermediate String
+            gen.writeUTF8String(utf8, 0, utf8.length);
+        } else {
+            gen.writeString(asText());
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        WritableTypeId typeId = typeSer.writeTypePrefix(gen, typeSer.typeId(this, JsonToken.VALUE_STRING));
+        serialize(gen, serializers);
+        typeSer.writeTypeSuffix(gen, typeId);
+    }
+
+    @Override
+    public String toString() {
+        return asText();
+    }
+}
@@ -20,4 +20,9 @@ public @interface Tool {
      * Description of what the tool does
      */
     String description();
+
+    /**
+     * Whether the tool only reads data, which lets batched calls to it run concurrently
+     */
+    boolean readOnly() default false;
 }
\ No newline at end of file
@@ -1,7 +1,12 @@
 package com.healthcare.patientcare.mcp.controller;
 
+import com.healthcare.patientcare.mcp.MCPDispatcher;
 import com.healthcare.patientcare.mcp.MCPServer;
+import com.healthcare.patientcare.mcp.session.MCPSession;
+import com.healthcare.patientcare.mcp.session.MCPSessionRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,86 +19,75 @@ public class MCPController {
     @Autowired
     private MCPServer mcpServer;
 
-    @PostMapping
-    public ResponseEntity<Map<String, Object>> handleMCPRequest(@RequestBody Map<String, Object> request) {
-        String method = (String) request.get("method");
-        Object id = request.get("id");
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("jsonrpc", "2.0");
-        response.put("id", id);
-
-        try {
-            switch (method) {
-                case "initialize":
-                    response.put("result", handleInitialize());
-                    break;
+    @Autowired
+    private MCPDispatcher dispatcher;
 
-                case "tools/list":
-                    response.put("result", handleToolsList());
-                    break;
+    @Autowired
+    private MCPSessionRegistry sessionRegistry;
 
-                case "tools/call":
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> params = (Map<String, Object>) request.get("params");
-                    response.put("result", handleToolsCall(params));
-                    break;
+    @PostMapping
+    public ResponseEntity<?> handleMCPRequest(
+            @RequestBody byte[] rawBody,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = MCPSessionRegistry.SESSION_HEADER, required = false) String sessionId) {
+        MCPSession session = sessionRegistry.find(sessionId).orElse(null);
+
+        Object body = dispatcher.parse(rawBody);
+        if (body == null) {
+            return ResponseEntity.ok(MCPDispatcher.errorResponse(null, -32700, "Parse error"));
+        }
 
-                default:
-                    Map<String, Object> error = new HashMap<>();
-                    error.put("code", -32601);
-                    error.put("message", "Method not found: " + method);
-                    response.put("error", error);
+        if (body instanceof List<?> batch) {
+            List<Map<String, Object>> responses = dispatcher.dispatchBatch(batch, session);
+            if (responses.isEmpty()) {
+                return ResponseEntity.noContent().build();
             }
-        } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("code", -32603);
-            error.put("message", "Internal error: " + e.getMessage());
-            response.put("error", error);
+            return ResponseEntity.ok(batch.isEmpty() ? responses.get(0) : responses);
+        }
+        if (!(body instanceof Map)) {
+            return ResponseEntity.ok(MCPDispatcher.errorResponse(null, -32600, "Invalid Request"));
         }
 
-        return ResponseEntity.ok(response);
-    }
-
-    private Map<String, Object> handleInitialize() {
-        Map<String, Object> result = new HashMap<>();
-        result.put("protocolVersion", "2024-11-05");
-        result.put("serverInfo", Map.of(
-                "name", "patient-care-system",
-                "version", "1.0.0"
-        ));
-        result.put("capabilities", Map.of(
-                "tools", Map.of()
-        ));
-        return result;
-    }
-
-    private Map<String, Object> handleToolsList() {
-        Map<String, Object> result = new HashMap<>();
-        result.put("tools", mcpServer.listTools());
-        return result;
-    }
-
-    private Map<String, Object> handleToolsCall(Map<String, Object> params) {
-        String toolName = (String) params.get("name");
         @SuppressWarnings("unchecked")
-        Map<String, Object> arguments = (Map<String, Object>) params.get("arguments");
+        Map<String, Object> request = (Map<String, Object>) body;
+        String method = (String) request.get("method");
 
-        if (arguments == null) {
-            arguments = new HashMap<>();
+        // The tool set is fixed after startup, so clients holding the current list skip the payload
+        if ("tools/list".equals(method)) {
+            String etag = mcpServer.getToolsListEtag();
+            if (matchesAny(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
         }
 
-        String toolResult = mcpServer.callTool(toolName, arguments);
+        // initialize opens a session the client can later attach a stream to
+        if ("initialize".equals(method) && session == null) {
+            session = sessionRegistry.create();
+        }
 
-        Map<String, Object> result = new HashMap<>();
-        List<Map<String, Object>> content = new ArrayList<>();
+        Map<String, Object> response = dispatcher.dispatch(request, session);
 
-        Map<String, Object> textContent = new HashMap<>();
-        textContent.put("type", "text");
-        textContent.put("text", toolResult);
-        content.add(textContent);
+        if ("initialize".equals(method)) {
+            return ResponseEntity.ok().header(MCPSessionRegistry.SESSION_HEADER, session.getId()).body(response);
+        }
+        if ("tools/list".equals(method) && response.containsKey("result")) {
+            return ResponseEntity.ok().eTag(mcpServer.getToolsListEtag()).body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
 
-        result.put("content", content);
-        return result;
+    // If-None-Match is "*" or a list of entity tags, compared weakly, so W/"x" matches "x"
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(ifNoneMatch);
+        for (String tag : headers.getIfNoneMatch()) {
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package com.healthcare.patientcare.mcp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.patientcare.mcp.MCPDispatcher;
+import com.healthcare.patientcare.mcp.session.MCPSession;
+import com.healthcare.patientcare.mcp.session.MCPSessionRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Streaming MCP transport. A client opens one long-lived SSE stream, then POSTs any
+ * number of JSON-RPC messages to the advertised endpoint; each response is pushed
+ * onto the stream as soon as its call finishes, so pipelined calls never wait on
+ * each other's round trips.
+ */
+@RestController
+@RequestMapping("/mcp")
+public class MCPStreamController {
+
+    private static final Logger log = LoggerFactory.getLogger(MCPStreamController.class);
+
+    @Autowired
+    private MCPDispatcher dispatcher;
+
+    @Autowired
+    private MCPSessionRegistry sessionRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("mcpBatchExecutor")
+    private Executor executor;
+
+    @Value("${mcp.sse.timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    @GetMapping(path = "/sse", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter openStream(
+            @RequestHeader(value = MCPSessionRegistry.SESSION_HEADER, required = false) String sessionId) throws IOException {
+        MCPSession session = sessionRegistry.find(sessionId).orElseGet(sessionRegistry::create);
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        sessionRegistry.attach(session, emitter);
+
+        emitter.send(SseEmitter.event()
+                .name("endpoint")
+                .data("/mcp/messages?sessionId=" + session.getId()));
+        return emitter;
+    }
+
+    @PostMapping("/messages")
+    public ResponseEntity<?> postMessage(
+            @RequestParam(value = "sessionId", required = false) String sessionIdParam,
+            @RequestHeader(value = MCPSessionRegistry.SESSION_HEADER, required = false) String sessionIdHeader,
+            @RequestBody byte[] rawBody) {
+        String sessionId = sessionIdParam != null ? sessionIdParam : sessionIdHeader;
+        MCPSession session = sessionRegistry.find(sessionId).orElse(null);
+        if (session == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Object body = dispatcher.parse(rawBody);
+        if (body == null) {
+            return ResponseEntity.ok(MCPDispatcher.errorResponse(null, -32700, "Parse error"));
+        }
+
+        // Without an open stream there is nowhere to push to, so answer inline
+        if (!session.isStreaming()) {
+            if (body instanceof List<?> batch) {
+                return ResponseEntity.ok(dispatcher.dispatchBatch(batch, session));
+            }
+            return ResponseEntity.ok(body instanceof Map ? dispatchSingle(body, session)
+                    : MCPDispatcher.errorResponse(null, -32600, "Invalid Request"));
+        }
+
+        List<?> messages = body instanceof List<?> batch ? batch : List.of(body);
+        if (messages.isEmpty()) {
+            pipeline(null, session);
+        }
+        for (Object message : messages) {
+            pipeline(message, session);
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    private void pipeline(Object message, MCPSession session) {
+        if (!(message instanceof Map)) {
+            session.submit(() -> push(session, MCPDispatcher.errorResponse(null, -32600, "Invalid Request")),
+                    false, executor);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> request = (Map<String, Object>) message;
+        boolean readOnly = dispatcher.isReadOnlyToolCall(request);
+        session.submit(() -> {
+            Map<String, Object> response = dispatcher.dispatch(request, session);
+            if (!MCPDispatcher.isNotification(request)) {
+                push(session, response);
+            }
+        }, readOnly, executor);
+    }
+
+    private Map<String, Object> dispatchSingle(Object body, MCPSession session) {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> request = (Map<String, Object>) body;
+        return dispatcher.dispatch(request, session);
+    }
+
+    private void push(MCPSession session, Map<String, Object> response) {
+        try {
+            session.send(new String(objectMapper.writeValueAsBytes(response), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.warn("Dropping response for MCP session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+}
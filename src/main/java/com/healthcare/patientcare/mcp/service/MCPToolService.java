@@ -1,19 +1,21 @@
 package com.healthcare.patientcare.mcp.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.healthcare.patientcare.entity.CarePlan;
 import com.healthcare.patientcare.entity.Appointment;
 import com.healthcare.patientcare.entity.Patient;
 import com.healthcare.patientcare.entity.ProgressNote;
 import com.healthcare.patientcare.mcp.annotation.Tool;
 import com.healthcare.patientcare.mcp.annotation.ToolParam;
+import com.healthcare.patientcare.service.BulkImportService;
 import com.healthcare.patientcare.service.PatientService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.StringReader;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -26,90 +28,131 @@ public class MCPToolService {
     private com.healthcare.patientcare.service.AppointmentService appointmentService;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private BulkImportService bulkImportService;
 
     @Tool(
             name = "get_patient_by_name",
-            description = "Retrieve patient details by patient name"
+            description = "Retrieve patient details by exact patient name (case-insensitive). Use search_patients for partial or misspelled names",
+            readOnly = true
     )
-    public String getPatientByName(
+    public Object getPatientByName(
             @ToolParam(name = "name", description = "Full name of the patient") String name
     ) {
         try {
             Optional<Patient> patient = patientService.getPatientByName(name);
             if (patient.isPresent()) {
-                return objectMapper.writeValueAsString(patient.get());
+                return patient.get();
             } else {
-                return "{\"error\": \"Patient not found with name: " + name + "\"}";
+                return error("Patient not found with name: " + name);
             }
         } catch (Exception e) {
-            return "{\"error\": \"" + e.getMessage() + "\"}";
+            return error(e.getMessage());
+        }
+    }
+
+    @Tool(
+            name = "search_patients",
+            description = "Find patients by partial or misspelled name or patient ID, best matches first",
+            readOnly = true
+    )
+    public Object searchPatients(
+            @ToolParam(name = "query", description = "Name, part of a name, or patient ID to look for") String query,
+            @ToolParam(name = "limit", description = "Maximum matches to return (default 10, max 50)", required = false) Integer limit
+    ) {
+        try {
+            return patientService.searchPatients(query, limit != null ? limit : 10);
+        } catch (Exception e) {
+            return error(e.getMessage());
+        }
+    }
+
+    @Tool(
+            name = "search_clinical_text",
+            description = "Full-text search over progress notes and care plan goals, interventions and medications. Returns the best matches with highlighted snippets; supports \"quoted phrases\", +required and -excluded terms, and prefix*",
+            readOnly = true
+    )
+    public Object searchClinicalText(
+            @ToolParam(name = "query", description = "Words or phrases to look for, e.g. \"HbA1c\" insulin") String query,
+            @ToolParam(name = "type", description = "Restrict to progress_note or care_plan", required = false) String type,
+            @ToolParam(name = "patient_id", description = "Restrict to one patient's records", required = false) Long patientId,
+            @ToolParam(name = "limit", description = "Maximum matches to return (default 10, max 50)", required = false) Integer limit
+    ) {
+        try {
+            return patientService.searchClinicalText(query, type, patientId, limit != null ? limit : 10);
+        } catch (Exception e) {
+            return error(e.getMessage());
         }
     }
 
     @Tool(
             name = "get_patient_by_id",
-            description = "Retrieve patient details by patient ID"
+            description = "Retrieve patient details by patient ID",
+            readOnly = true
     )
-    public String getPatientById(
+    public Object getPatientById(
             @ToolParam(name = "patient_id", description = "Numeric ID of the patient") Long patientId
     ) {
         try {
             Optional<Patient> patient = patientService.getPatientById(patientId);
             if (patient.isPresent()) {
-                return objectMapper.writeValueAsString(patient.get());
+                return patient.get();
             } else {
-                return "{\"error\": \"Patient not found with ID: " + patientId + "\"}";
+                return error("Patient not found with ID: " + patientId);
             }
         } catch (Exception e) {
-            return "{\"error\": \"" + e.getMessage() + "\"}";
+            return error(e.getMessage());
         }
     }
 
     @Tool(
             name = "get_all_patients",
-            description = "List all patients in the system"
+            description = "List patients one page at a time. Pass nextCursor from the previous page as cursor to continue",
+            readOnly = true
     )
-    public String getAllPatients() {
+    public Object getAllPatients(
+            @ToolParam(name = "cursor", description = "nextCursor from the previous page; omit for the first page", required = false) String cursor,
+            @ToolParam(name = "limit", description = "Maximum patients to return (default 50, max 500)", required = false) Integer limit
+    ) {
         try {
-            List<Patient> patients = patientService.getAllPatients();
-            return objectMapper.writeValueAsString(patients);
+            return patientService.getPatientsPage(cursor, limit != null ? limit : 50);
         } catch (Exception e) {
-            return "{\"error\": \"" + e.getMessage() + "\"}";
+            return error(e.getMessage());
         }
     }
 
     @Tool(
             name = "get_progress_notes",
-            description = "Get all progress notes for a specific patient"
+            description = "Get all progress notes for a specific patient",
+            readOnly = true
     )
-    public String getProgressNotes(
+    public Object getProgressNotes(
             @ToolParam(name = "patient_id", description = "Numeric ID of the patient") Long patientId
     ) {
         try {
             List<ProgressNote> notes = patientService.getProgressNotesByPatientId(patientId);
-            return objectMapper.writeValueAsString(notes);
+            return notes;
         } catch (Exception e) {
-            return "{\"error\": \"" + e.getMessage() + "\"}";
+            return error(e.getMessage());
         }
     }
 
     @Tool(
             name = "get_care_plan",
-            description = "Get the care plan for a specific patient"
+            description = "Get the care plan for a specific patient",
+            readOnly = true
     )
-    public String getCarePlan(
+    public Object getCarePlan(
             @ToolParam(name = "patient_id", description = "Numeric ID of the patient") Long patientId
     ) {
         try {
             Optional<CarePlan> carePlan = patientService.getCarePlanByPatientId(patientId);
             if (carePlan.isPresent()) {
-                return objectMapper.writeValueAsString(carePlan.get());
+                return carePlan.get();
             } else {
-                return "{\"error\": \"Care plan not found for patient ID: " + patientId + "\"}";
+                return error("Care plan not found for patient ID: " + patientId);
             }
         } catch (Exception e) {
-            return "{\"error\": \"" + e.getMessage() + "\"}";
+            return error(e.getMessage());
         }
     }
 
@@ -117,15 +160,17 @@ public class MCPToolService {
             name = "update_care_plan",
             description = "Update or create a care plan for a patient"
     )
-    public String updateCarePlan(
+    public Object updateCarePlan(
             @ToolParam(name = "patient_id", description = "Numeric ID of the patient") Long patientId,
             @ToolParam(name = "goals", description = "Health goals for the patient") String goals,
             @ToolParam(name = "interventions", description = "Planned interventions") String interventions,
             @ToolParam(name = "medications", description = "Prescribed medications") String medications,
-            @ToolParam(name = "status", description = "Status of the care plan (e.g., Active, Under Review)") String status
+            @ToolParam(name = "status", description = "Status of the care plan (e.g., Active, Under Review)") String status,
+            @ToolParam(name = "expected_version", description = "Version of the care plan this update is based on; the update fails if it has changed since", required = false) Long expectedVersion
     ) {
         try {
             CarePlan carePlanRequest = new CarePlan();
+            carePlanRequest.setVersion(expectedVersion);
             carePlanRequest.setGoals(goals);
             carePlanRequest.setInterventions(interventions);
             carePlanRequest.setMedications(medications);
@@ -134,9 +179,9 @@ public class MCPToolService {
             carePlanRequest.setReviewDate(LocalDate.now().plusMonths(3));
 
             CarePlan updated = patientService.updateCarePlan(patientId, carePlanRequest);
-            return objectMapper.writeValueAsString(updated);
+            return updated;
         } catch (Exception e) {
-            return "{\"error\": \"" + e.getMessage() + "\"}";
+            return error(e.getMessage());
         }
     }
 
@@ -144,7 +189,7 @@ public class MCPToolService {
             name = "add_progress_note",
             description = "Add a new progress note for a patient"
     )
-    public String addProgressNote(
+    public Object addProgressNote(
             @ToolParam(name = "patient_id", description = "Numeric ID of the patient") Long patientId,
             @ToolParam(name = "note", description = "Content of the progress note") String note,
             @ToolParam(name = "provider", description = "Name of the healthcare provider") String provider,
@@ -158,9 +203,9 @@ public class MCPToolService {
             progressNote.setDateTime(LocalDateTime.now());
 
             ProgressNote created = patientService.addProgressNote(patientId, progressNote);
-            return objectMapper.writeValueAsString(created);
+            return created;
         } catch (Exception e) {
-            return "{\"error\": \"" + e.getMessage() + "\"}";
+            return error(e.getMessage());
         }
     }
 
@@ -168,7 +213,7 @@ public class MCPToolService {
             name = "create_patient",
             description = "Create a new patient record"
     )
-    public String createPatient(
+    public Object createPatient(
             @ToolParam(name = "name", description = "Full name of the patient") String name,
             @ToolParam(name = "patient_id", description = "Unique patient identifier") String patientId,
             @ToolParam(name = "date_of_birth", description = "Date of birth (YYYY-MM-DD)") String dateOfBirth,
@@ -188,48 +233,72 @@ public class MCPToolService {
             patient.setAddress(address);
 
             Patient created = patientService.createPatient(patient);
-            return objectMapper.writeValueAsString(created);
+            return created;
         } catch (Exception e) {
-            return "{\"error\": \"" + e.getMessage() + "\"}";
+            return error(e.getMessage());
         }
     }
 
     @Tool(
             name = "schedule_appointment",
-            description = "Schedule an appointment for a patient"
+            description = "Schedule an appointment for a patient. Fails if the provider is already booked for any part of that time"
     )
-    public String scheduleAppointment(
+    public Object scheduleAppointment(
             @ToolParam(name = "patient_id", description = "Numeric ID of the patient") Long patientId,
             @ToolParam(name = "appointment_date", description = "Appointment date and time (ISO-8601)") String appointmentDate,
             @ToolParam(name = "reason", description = "Reason for visit") String reason,
-            @ToolParam(name = "provider", description = "Provider name") String provider
+            @ToolParam(name = "provider", description = "Provider name") String provider,
+            @ToolParam(name = "duration_minutes", description = "Length of the appointment in minutes (default 30)", required = false) Integer durationMinutes
     ) {
         try {
             Appointment appt = new Appointment();
             appt.setAppointmentDate(LocalDateTime.parse(appointmentDate));
+            appt.setDurationMinutes(durationMinutes);
             appt.setReason(reason);
             appt.setProvider(provider);
             appt.setStatus("Scheduled");
 
             Appointment created = appointmentService.createAppointment(patientId, appt);
-            return objectMapper.writeValueAsString(created);
+            return created;
         } catch (Exception e) {
-            return "{\"error\": \"" + e.getMessage() + "\"}";
+            return error(e.getMessage());
+        }
+    }
+
+    @Tool(
+            name = "find_available_slots",
+            description = "Find free stretches of a provider's working hours long enough for an appointment, earliest first",
+            readOnly = true
+    )
+    public Object findAvailableSlots(
+            @ToolParam(name = "provider", description = "Provider name") String provider,
+            @ToolParam(name = "from", description = "Start of the search window (ISO-8601 date-time)") String from,
+            @ToolParam(name = "to", description = "End of the search window (ISO-8601 date-time)") String to,
+            @ToolParam(name = "duration_minutes", description = "Length of the appointment in minutes (default 30)", required = false) Integer durationMinutes,
+            @ToolParam(name = "limit", description = "Maximum slots to return (default 20, max 100)", required = false) Integer limit
+    ) {
+        try {
+            return appointmentService.findAvailableSlots(provider, LocalDateTime.parse(from), LocalDateTime.parse(to),
+                    durationMinutes != null ? durationMinutes : Appointment.DEFAULT_DURATION_MINUTES,
+                    limit != null ? limit : 20);
+        } catch (Exception e) {
+            return error(e.getMessage());
         }
     }
 
     @Tool(
             name = "get_appointments",
-            description = "Get appointments for a patient"
+            description = "Get appointments for a patient",
+            readOnly = true
     )
-    public String getAppointments(
+    public Object getAppointments(
             @ToolParam(name = "patient_id", description = "Numeric ID of the patient") Long patientId
     ) {
         try {
             List<Appointment> appts = appointmentService.getAppointmentsByPatientId(patientId);
-            return objectMapper.writeValueAsString(appts);
+            return appts;
         } catch (Exception e) {
-            return "{\"error\": \"" + e.getMessage() + "\"}";
+            return error(e.getMessage());
         }
     }
 
@@ -237,14 +306,39 @@ public class MCPToolService {
             name = "cancel_appointment",
             description = "Cancel an appointment by appointment ID"
     )
-    public String cancelAppointment(
+    public Object cancelAppointment(
             @ToolParam(name = "appointment_id", description = "Numeric ID of the appointment") Long appointmentId
     ) {
         try {
             Appointment cancelled = appointmentService.cancelAppointment(appointmentId);
-            return objectMapper.writeValueAsString(cancelled);
+            return cancelled;
         } catch (Exception e) {
-            return "{\"error\": \"" + e.getMessage() + "\"}";
+            return error(e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Tool(
+            name = "bulk_import",
+            description = "Import many patients, progress notes or appointments at once from NDJSON (one JSON object per line) or CSV with a header row. Notes and appointments reference their patient by patientId (e.g. PAT001). Returns counts and the lines that failed"
+    )
+    public Object bulkImport(
+            @ToolParam(name = "kind", description = "What the records are: patients, progress_notes or appointments") String kind,
+            @ToolParam(name = "data", description = "The records, as NDJSON or CSV text") String data,
+            @ToolParam(name = "format", description = "ndjson (default) or csv", required = false) String format
+    ) {
+        try {
+            return bulkImportService.importRecords(
+                    BulkImportService.Kind.parse(kind),
+                    BulkImportService.Format.parse(format != null ? format : "ndjson"),
+                    new StringReader(data),
+                    batch -> { });
+        } catch (Exception e) {
+            return error(e.getMessage());
+        }
+    }
+
+    // Encoded by MCPServer like any other result, as messages can carry the caller's input
+    private static Map<String, String> error(String message) {
+        return Map.of("error", String.valueOf(message));
+    }
+}
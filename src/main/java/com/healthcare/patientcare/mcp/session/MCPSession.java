@@ -0,0 +1,122 @@
+package com.healthcare.patientcare.mcp.session;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * State for one MCP client: the protocol version agreed in initialize and, for the
+ * streaming transport, the SSE stream that responses are pushed onto.
+ */
+public class MCPSession {
+
+    private final String id;
+
+    private volatile SseEmitter emitter;
+    private volatile String protocolVersion;
+    private volatile boolean initialized;
+    private volatile long lastActivity = System.currentTimeMillis();
+
+    // Pipelining order: writes run after everything before them, reads only after the last write.
+    // A lock rather than synchronized: handing a task to a throttled executor may block, and a
+    // virtual thread blocked inside a monitor would pin its carrier
+    private final Lock submitLock = new ReentrantLock();
+    private CompletableFuture<Void> lastWrite = CompletableFuture.completedFuture(null);
+    private final List<CompletableFuture<Void>> pendingReads = new ArrayList<>();
+
+    MCPSession(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    public void markInitialized(String protocolVersion) {
+        this.protocolVersion = protocolVersion;
+        this.initialized = true;
+    }
+
+    public long getLastActivity() {
+        return lastActivity;
+    }
+
+    public void touch() {
+        lastActivity = System.currentTimeMillis();
+    }
+
+    public SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    public boolean isStreaming() {
+        return emitter != null;
+    }
+
+    synchronized void attach(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    // False when a newer stream has replaced this one
+    synchronized boolean detach(SseEmitter emitter) {
+        if (this.emitter == emitter) {
+            this.emitter = null;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Schedules a pipelined message. Read-only work may overlap with other reads but
+     * never with a write that was submitted before it or after it.
+     */
+    public CompletableFuture<Void> submit(Runnable task, boolean readOnly, Executor executor) {
+        submitLock.lock();
+        try {
+            touch();
+            pendingReads.removeIf(CompletableFuture::isDone);
+            if (readOnly) {
+                CompletableFuture<Void> read = lastWrite.handle((ignored, failure) -> (Void) null)
+                        .thenRunAsync(task, executor);
+                pendingReads.add(read);
+                return read;
+            }
+
+            List<CompletableFuture<Void>> predecessors = new ArrayList<>(pendingReads);
+            predecessors.add(lastWrite);
+            pendingReads.clear();
+
+            lastWrite = CompletableFuture.allOf(predecessors.toArray(new CompletableFuture[0]))
+                    .handle((ignored, failure) -> (Void) null)
+                    .thenRunAsync(task, executor);
+            return lastWrite;
+        } finally {
+            submitLock.unlock();
+        }
+    }
+
+    /**
+     * Pushes one JSON-RPC message onto the stream as a single "message" event.
+     */
+    public void send(String json) throws IOException {
+        SseEmitter current = emitter;
+        if (current == null) {
+            throw new IOException("No open stream for session: " + id);
+        }
+        current.send(SseEmitter.event().name("message").data(json));
+    }
+}
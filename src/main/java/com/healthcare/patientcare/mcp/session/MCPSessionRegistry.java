@@ -0,0 +1,69 @@
+package com.healthcare.patientcare.mcp.session;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class MCPSessionRegistry {
+
+    public static final String SESSION_HEADER = "Mcp-Session-Id";
+
+    @Value("${mcp.session.idle-timeout-ms:1800000}")
+    private long idleTimeoutMs;
+
+    private final Map<String, MCPSession> sessions = new ConcurrentHashMap<>();
+
+    public MCPSession create() {
+        evictIdle();
+        MCPSession session = new MCPSession(UUID.randomUUID().toString());
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    public Optional<MCPSession> find(String sessionId) {
+        if (sessionId == null) {
+            return Optional.empty();
+        }
+        MCPSession session = sessions.get(sessionId);
+        if (session != null) {
+            session.touch();
+        }
+        return Optional.ofNullable(session);
+    }
+
+    /**
+     * Binds a stream to the session and drops the session when that stream ends,
+     * unless the client has already reopened it with a newer stream.
+     */
+    public void attach(MCPSession session, SseEmitter emitter) {
+        session.attach(emitter);
+        Runnable close = () -> {
+            if (session.detach(emitter)) {
+                sessions.remove(session.getId(), session);
+            }
+        };
+        emitter.onCompletion(close);
+        emitter.onTimeout(close);
+        emitter.onError(error -> close.run());
+    }
+
+    public void remove(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    // Sessions opened by plain POST clients have no stream to close them, so they age out
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+        sessions.values().removeIf(session -> !session.isStreaming() && session.getLastActivity() < cutoff);
+    }
+}
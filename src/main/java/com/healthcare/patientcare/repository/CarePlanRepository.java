@@ -1,11 +1,21 @@
 package com.healthcare.patientcare.repository;
 
 import com.healthcare.patientcare.entity.CarePlan;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CarePlanRepository extends JpaRepository<CarePlan, Long> {
     Optional<CarePlan> findByPatientId(Long patientId);
-}
\ No newline at end of file
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<CarePlan> streamAllByOrderByIdAsc();
+}
@@ -0,0 +1,34 @@
+package com.healthcare.patientcare.repository;
+
+import com.healthcare.patientcare.entity.ChangeEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ChangeEventRepository extends JpaRepository<ChangeEvent, Long> {
+
+    // Committed but not yet published, in the order they were recorded
+    List<ChangeEvent> findByLogOffsetIsNullOrderByIdAsc(Limit limit);
+
+    List<ChangeEvent> findByLogOffsetGreaterThanOrderByLogOffsetAsc(long logOffset, Limit limit);
+
+    List<ChangeEvent> findByAggregateTypeAndLogOffsetGreaterThanOrderByLogOffsetAsc(String aggregateType, long logOffset,
+                                                                                   Limit limit);
+
+    @Query("select max(e.logOffset) from ChangeEvent e")
+    Long findMaxLogOffset();
+
+    @Query("select min(e.logOffset) from ChangeEvent e")
+    Long findMinLogOffset();
+
+    @Modifying
+    @Query("delete from ChangeEvent e where e.logOffset is not null and e.occurredAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
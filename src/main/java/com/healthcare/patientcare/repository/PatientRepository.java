@@ -1,12 +1,41 @@
 package com.healthcare.patientcare.repository;
 
+import com.healthcare.patientcare.dto.response.PatientSummaryResponseDTO;
 import com.healthcare.patientcare.entity.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
-    Optional<Patient> findByName(String name);
+    // The first match is picked in SQL, so joining the notes needs no row limit and other patients
+    // with the same name are never read. Appointments are a second bag, loaded by one more select
+    @EntityGraph(attributePaths = {"carePlan", "progressNotes"})
+    @Query("select p from Patient p where p.id = (select min(o.id) from Patient o where o.nameKey = :nameKey)")
+    Optional<Patient> findFirstWithDetailsByNameKey(String nameKey);
+
     Optional<Patient> findByPatientId(String patientId);
-}
\ No newline at end of file
+
+    List<Patient> findByPatientIdIn(Collection<String> patientIds);
+
+    @EntityGraph(attributePaths = {"carePlan", "progressNotes"})
+    Optional<Patient> findWithDetailsById(Long id);
+
+    List<PatientSummaryResponseDTO> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<PatientSummaryResponseDTO> streamAllByOrderByIdAsc();
+}
@@ -1,11 +1,21 @@
 package com.healthcare.patientcare.repository;
 
 import com.healthcare.patientcare.entity.ProgressNote;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProgressNoteRepository extends JpaRepository<ProgressNote, Long> {
     List<ProgressNote> findByPatientId(Long patientId);
-}
\ No newline at end of file
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProgressNote> streamAllByOrderByIdAsc();
+}
@@ -0,0 +1,305 @@
+package com.healthcare.patientcare.service;
+
+import com.healthcare.patientcare.dto.response.AgendaChangesResponseDTO;
+import com.healthcare.patientcare.dto.response.AgendaResponseDTO;
+import com.healthcare.patientcare.dto.response.AppointmentEntryDTO;
+import com.healthcare.patientcare.entity.Appointment;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory agenda of appointments from a few days back onwards, bucketed by
+ * day and then by provider, so range and per-provider agenda queries read
+ * only the buckets they cover. Every committed change bumps a version and is
+ * kept in a bounded change log, letting pollers ask for what changed since the
+ * version they last saw instead of re-reading the whole window. Once an hour,
+ * days that have fallen more than agenda.past-days behind are dropped, so the
+ * agenda only ever holds the recent past and what is ahead.
+ */
+@Component
+public class AppointmentAgenda {
+
+    private static final Comparator<AppointmentEntryDTO> BY_TIME =
+            Comparator.comparing(AppointmentEntryDTO::getAppointmentDate).thenComparing(AppointmentEntryDTO::getId);
+
+    private static final long TRIM_INTERVAL_MINUTES = 60;
+
+    @Value("${agenda.change-log-size:10000}")
+    private int changeLogSize;
+
+    @Value("${agenda.past-days:7}")
+    private int pastDays;
+
+    private ScheduledExecutorService trimExecutor;
+
+    private final ConcurrentNavigableMap<LocalDate, Day> days = new ConcurrentSkipListMap<>();
+    private final Map<Long, AppointmentEntryDTO> byId = new ConcurrentHashMap<>();
+
+    // Writers hold the write lock; change queries hold the read lock. Range reads don't lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Deque<Change> changes = new ArrayDeque<>();
+    private volatile long version;
+    // The log holds every change after this version
+    private volatile long oldestVersion;
+    // Range queries starting before this day aren't covered and go to the database
+    private volatile LocalDate coveredFrom = LocalDate.MAX;
+
+    private record Change(long version, Long id, AppointmentEntryDTO before, AppointmentEntryDTO after) {
+    }
+
+    /** One day's appointments, per provider, in time order. */
+    private static class Day {
+        final ConcurrentMap<String, ConcurrentSkipListSet<AppointmentEntryDTO>> byProvider = new ConcurrentHashMap<>();
+    }
+
+    @PostConstruct
+    void start() {
+        trimExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "agenda-trim");
+            thread.setDaemon(true);
+            return thread;
+        });
+        trimExecutor.scheduleWithFixedDelay(() -> trimBefore(LocalDate.now().minusDays(pastDays)),
+                TRIM_INTERVAL_MINUTES, TRIM_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void stop() {
+        trimExecutor.shutdownNow();
+    }
+
+    /**
+     * Empties the agenda ahead of a reload covering {@code from} onwards.
+     * Versions restart from the wall clock, so a version handed out before a
+     * restart is never mistaken for one after it.
+     */
+    public void reset(LocalDate from) {
+        lock.writeLock().lock();
+        try {
+            days.clear();
+            byId.clear();
+            changes.clear();
+            version = Math.max(System.currentTimeMillis(), version + 1);
+            oldestVersion = version;
+            coveredFrom = from;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stops covering days before {@code from} and drops their appointments.
+     * Coverage moves first, so range queries for those days go to the
+     * database from then on.
+     */
+    public void trimBefore(LocalDate from) {
+        lock.writeLock().lock();
+        try {
+            if (!from.isAfter(coveredFrom)) {
+                return;
+            }
+            coveredFrom = from;
+            NavigableMap<LocalDate, Day> expired = days.headMap(from, false);
+            for (Day day : expired.values()) {
+                for (ConcurrentSkipListSet<AppointmentEntryDTO> entries : day.byProvider.values()) {
+                    for (AppointmentEntryDTO entry : entries) {
+                        byId.remove(entry.getId(), entry);
+                    }
+                }
+            }
+            expired.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Adds an appointment during a reload, without recording a change. */
+    public void load(AppointmentEntryDTO entry) {
+        lock.writeLock().lock();
+        try {
+            byId.put(entry.getId(), entry);
+            bucket(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records the appointment as it stands once the surrounding transaction
+     * commits, by which point its version has been bumped.
+     */
+    public void putAfterCommit(Appointment appointment) {
+        afterCommit(() -> apply(appointment.getId(), AppointmentEntryDTO.from(appointment)));
+    }
+
+    public void removeAfterCommit(Long appointmentId) {
+        afterCommit(() -> apply(appointmentId, null));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public boolean covers(LocalDateTime from) {
+        return !from.toLocalDate().isBefore(coveredFrom);
+    }
+
+    /**
+     * Appointments from {@code from} to {@code to} inclusive, for one provider
+     * or all of them, in time order. Only meaningful when {@link #covers} holds
+     * for {@code from}.
+     */
+    public AgendaResponseDTO range(LocalDateTime from, LocalDateTime to, String provider) {
+        // Read the version first: anything changed while reading is returned again by the next delta
+        long current = version;
+        // Like BETWEEN, a reversed window matches nothing
+        if (to.isBefore(from)) {
+            return new AgendaResponseDTO(current, List.of());
+        }
+        AppointmentEntryDTO lower = probe(from, Long.MIN_VALUE);
+        AppointmentEntryDTO upper = probe(to, Long.MAX_VALUE);
+        List<AppointmentEntryDTO> result = new ArrayList<>();
+        for (Day day : days.subMap(from.toLocalDate(), true, to.toLocalDate(), true).values()) {
+            if (provider != null) {
+                ConcurrentSkipListSet<AppointmentEntryDTO> entries = day.byProvider.get(provider);
+                if (entries != null) {
+                    result.addAll(entries.subSet(lower, true, upper, true));
+                }
+            } else {
+                int dayStart = result.size();
+                for (ConcurrentSkipListSet<AppointmentEntryDTO> entries : day.byProvider.values()) {
+                    result.addAll(entries.subSet(lower, true, upper, true));
+                }
+                result.subList(dayStart, result.size()).sort(BY_TIME);
+            }
+        }
+        return new AgendaResponseDTO(current, result);
+    }
+
+    /**
+     * Changes to appointments in the window since {@code since}. Several
+     * changes to one appointment collapse into its latest state; one that
+     * moved out of the window, or was deleted, is reported as removed.
+     */
+    public AgendaChangesResponseDTO changesSince(long since, LocalDateTime from, LocalDateTime to, String provider) {
+        lock.readLock().lock();
+        try {
+            long current = version;
+            if (since > current || since < oldestVersion) {
+                return new AgendaChangesResponseDTO(current, true, List.of(), List.of());
+            }
+            // Newest first, so the first change seen per id holds its latest state
+            Map<Long, AppointmentEntryDTO[]> net = new LinkedHashMap<>();
+            for (Iterator<Change> it = changes.descendingIterator(); it.hasNext(); ) {
+                Change change = it.next();
+                if (change.version() <= since) {
+                    break;
+                }
+                AppointmentEntryDTO[] beforeAndAfter = net.computeIfAbsent(change.id(),
+                        id -> new AppointmentEntryDTO[]{null, change.after()});
+                beforeAndAfter[0] = change.before();
+            }
+            List<AppointmentEntryDTO> updated = new ArrayList<>();
+            List<Long> removed = new ArrayList<>();
+            for (Map.Entry<Long, AppointmentEntryDTO[]> entry : net.entrySet()) {
+                AppointmentEntryDTO before = entry.getValue()[0];
+                AppointmentEntryDTO after = entry.getValue()[1];
+                if (matches(after, from, to, provider)) {
+                    updated.add(after);
+                } else if (matches(before, from, to, provider)) {
+                    removed.add(entry.getKey());
+                }
+            }
+            updated.sort(BY_TIME);
+            return new AgendaChangesResponseDTO(current, false, updated, removed);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Long id, AppointmentEntryDTO next) {
+        lock.writeLock().lock();
+        try {
+            // Changes to days the agenda no longer covers are logged but not kept
+            AppointmentEntryDTO kept = next != null && isCovered(next) ? next : null;
+            AppointmentEntryDTO previous = kept != null ? byId.put(id, kept) : byId.remove(id);
+            if (previous == null && next == null) {
+                return;
+            }
+            unbucket(previous);
+            bucket(kept);
+            long nextVersion = version + 1;
+            changes.addLast(new Change(nextVersion, id, previous, next));
+            if (changes.size() > changeLogSize) {
+                oldestVersion = changes.removeFirst().version();
+            }
+            version = nextVersion;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isCovered(AppointmentEntryDTO entry) {
+        return entry.getAppointmentDate() == null || !entry.getAppointmentDate().toLocalDate().isBefore(coveredFrom);
+    }
+
+    private void bucket(AppointmentEntryDTO entry) {
+        if (entry != null && entry.getAppointmentDate() != null) {
+            days.computeIfAbsent(entry.getAppointmentDate().toLocalDate(), d -> new Day())
+                    .byProvider.computeIfAbsent(providerKey(entry), p -> new ConcurrentSkipListSet<>(BY_TIME))
+                    .add(entry);
+        }
+    }
+
+    private void unbucket(AppointmentEntryDTO entry) {
+        if (entry != null && entry.getAppointmentDate() != null) {
+            Day day = days.get(entry.getAppointmentDate().toLocalDate());
+            if (day != null) {
+                ConcurrentSkipListSet<AppointmentEntryDTO> entries = day.byProvider.get(providerKey(entry));
+                if (entries != null) {
+                    entries.remove(entry);
+                }
+            }
+        }
+    }
+
+    private static boolean matches(AppointmentEntryDTO entry, LocalDateTime from, LocalDateTime to, String provider) {
+        return entry != null
+                && entry.getAppointmentDate() != null
+                && !entry.getAppointmentDate().isBefore(from)
+                && !entry.getAppointmentDate().isAfter(to)
+                && (provider == null || provider.equals(providerKey(entry)));
+    }
+
+    private static String providerKey(AppointmentEntryDTO entry) {
+        return entry.getProvider() != null ? entry.getProvider() : "";
+    }
+
+    private static AppointmentEntryDTO probe(LocalDateTime time, long id) {
+        return new AppointmentEntryDTO(id, null, time, null, null, null, null, null);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,43 +1,164 @@
 package com.healthcare.patientcare.service;
 
+import com.healthcare.patientcare.config.CacheConfig;
+import com.healthcare.patientcare.dto.response.AgendaChangesResponseDTO;
+import com.healthcare.patientcare.dto.response.AgendaResponseDTO;
+import com.healthcare.patientcare.dto.response.AppointmentEntryDTO;
+import com.healthcare.patientcare.dto.response.AvailableSlotDTO;
+import com.healthcare.patientcare.dto.response.CursorPageResponseDTO;
 import com.healthcare.patientcare.entity.Appointment;
 import com.healthcare.patientcare.entity.Patient;
 import com.healthcare.patientcare.repository.AppointmentRepository;
 import com.healthcare.patientcare.repository.PatientRepository;
+import com.healthcare.patientcare.service.ProviderSchedule.Booking;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class AppointmentService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_SLOTS = 100;
+
+    // Matches the fetch size hint on the streaming repository queries
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    @Value("${agenda.past-days:7}")
+    private int agendaPastDays;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private AppointmentRepository appointmentRepository;
 
     @Autowired
     private PatientRepository patientRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ProviderSchedule schedule;
+
+    @Autowired
+    private AppointmentAgenda agenda;
+
+    @Autowired
+    private ChangeEventLog changeEventLog;
+
     public Optional<Appointment> getAppointmentById(Long id) {
         return appointmentRepository.findById(id);
     }
 
-    public List<Appointment> getAllAppointments() {
-        return appointmentRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<Appointment> getAppointmentsPage(String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Appointment> rows = appointmentRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPageResponseDTO.decodeCursor(cursor), Limit.of(pageSize + 1));
+        return CursorPageResponseDTO.fromRows(rows, pageSize, Appointment::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllAppointments(Consumer<Appointment> consumer) {
+        try (Stream<Appointment> appointments = appointmentRepository.streamAllByOrderByIdAsc()) {
+            int[] consumed = {0};
+            appointments.forEach(appointment -> {
+                consumer.accept(appointment);
+                if (++consumed[0] % STREAM_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            });
+        }
     }
 
     public List<Appointment> getAppointmentsByPatientId(Long patientId) {
         return appointmentRepository.findByPatientId(patientId);
     }
 
-    public List<Appointment> getAppointmentsBetween(LocalDateTime start, LocalDateTime end) {
-        return appointmentRepository.findByAppointmentDateBetween(start, end);
+    public List<AppointmentEntryDTO> getAppointmentsBetween(LocalDateTime start, LocalDateTime end) {
+        return getAgenda(start, end, null).getAppointments();
+    }
+
+    /**
+     * Appointments in the window, optionally for one provider, served from the
+     * in-memory agenda. Windows reaching back before the agenda's first day
+     * are read from the database.
+     */
+    @Transactional(readOnly = true)
+    public AgendaResponseDTO getAgenda(LocalDateTime start, LocalDateTime end, String provider) {
+        if (agenda.covers(start)) {
+            return agenda.range(start, end, provider);
+        }
+        long version = agenda.version();
+        List<Appointment> rows = provider != null
+                ? appointmentRepository.findByProviderAndAppointmentDateBetween(provider, start, end)
+                : appointmentRepository.findByAppointmentDateBetween(start, end);
+        return new AgendaResponseDTO(version, rows.stream().map(AppointmentEntryDTO::from).toList());
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public AgendaChangesResponseDTO getAgendaChanges(long since, LocalDateTime start, LocalDateTime end, String provider) {
+        return agenda.changesSince(since, start, end, provider);
+    }
+
+    /** Answered from the in-memory schedule; no query is run. */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<AvailableSlotDTO> findAvailableSlots(String provider, LocalDateTime from, LocalDateTime to,
+                                                     int durationMinutes, int limit) {
+        return schedule.findAvailableSlots(provider, from, to, durationMinutes, Math.max(1, Math.min(limit, MAX_SLOTS)));
     }
 
+    /** Loads every appointment's booked time into the schedule at startup. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildSchedule() {
+        schedule.clear();
+        streamAllAppointments(appointment -> schedule.load(Booking.of(appointment)));
+    }
+
+    /** Loads appointments from agenda.past-days ago onwards into the agenda at startup. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildAgenda() {
+        LocalDate from = LocalDate.now().minusDays(agendaPastDays);
+        agenda.reset(from);
+        try (Stream<Appointment> appointments =
+                     appointmentRepository.streamByAppointmentDateGreaterThanEqualOrderByIdAsc(from.atStartOfDay())) {
+            int[] consumed = {0};
+            appointments.forEach(appointment -> {
+                agenda.load(AppointmentEntryDTO.from(appointment));
+                if (++consumed[0] % STREAM_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            });
+        }
+    }
+
+    // A cached Patient carries its appointments, so every mutation evicts that patient.
+    // Bookings are checked against the provider's schedule after the row has its id;
+    // a conflict throws and rolls the insert back.
+    @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#patientId")
     public Appointment createAppointment(Long patientId, Appointment appointment) {
         Patient patient = patientRepository.findById(patientId)
                 .orElseThrow(() -> new RuntimeException("Patient not found"));
@@ -45,27 +166,70 @@ public class AppointmentService {
         if (appointment.getStatus() == null) {
             appointment.setStatus("Scheduled");
         }
-        return appointmentRepository.save(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        schedule.update(null, Booking.of(saved));
+        agenda.putAfterCommit(saved);
+        recordChange(ChangeEventLog.CREATED, saved);
+        return saved;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#result.patient.id")
     public Appointment updateAppointment(Long id, Appointment appointmentRequest) {
         Appointment existing = appointmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Appointment not found"));
+        if (appointmentRequest.getVersion() != null && !appointmentRequest.getVersion().equals(existing.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Appointment.class, id,
+                    "Appointment was changed by someone else (now version " + existing.getVersion()
+                            + ", request based on " + appointmentRequest.getVersion() + ")", null);
+        }
+        Booking previous = Booking.of(existing);
         existing.setAppointmentDate(appointmentRequest.getAppointmentDate());
         existing.setReason(appointmentRequest.getReason());
         existing.setStatus(appointmentRequest.getStatus());
         existing.setProvider(appointmentRequest.getProvider());
-        return appointmentRepository.save(existing);
+        if (appointmentRequest.getDurationMinutes() != null) {
+            existing.setDurationMinutes(appointmentRequest.getDurationMinutes());
+        }
+        schedule.update(previous, Booking.of(existing));
+        Appointment saved = appointmentRepository.save(existing);
+        agenda.putAfterCommit(saved);
+        recordChange(ChangeEventLog.UPDATED, saved);
+        return saved;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#result.patient.id")
     public Appointment cancelAppointment(Long id) {
         Appointment existing = appointmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Appointment not found"));
+        Booking previous = Booking.of(existing);
         existing.setStatus("Cancelled");
-        return appointmentRepository.save(existing);
+        schedule.update(previous, null);
+        Appointment saved = appointmentRepository.save(existing);
+        agenda.putAfterCommit(saved);
+        recordChange(ChangeEventLog.CANCELLED, saved);
+        return saved;
     }
 
     public void deleteAppointment(Long id) {
-        appointmentRepository.deleteById(id);
+        appointmentRepository.findById(id).ifPresent(appointment -> {
+            schedule.update(Booking.of(appointment), null);
+            appointmentRepository.delete(appointment);
+            agenda.removeAfterCommit(appointment.getId());
+            evictPatient(appointment.getPatient().getId());
+            changeEventLog.record(ChangeEventLog.APPOINTMENT, ChangeEventLog.DELETED, appointment.getId(),
+                    appointment.getPatient().getId(), null);
+        });
+    }
+
+    private void recordChange(String eventType, Appointment appointment) {
+        changeEventLog.record(ChangeEventLog.APPOINTMENT, eventType, appointment.getId(),
+                appointment.getPatient().getId(), AppointmentEntryDTO.from(appointment));
+    }
+
+    private void evictPatient(Long patientId) {
+        Cache patients = cacheManager.getCache(CacheConfig.PATIENTS);
+        if (patients != null) {
+            patients.evict(patientId);
+        }
     }
 }
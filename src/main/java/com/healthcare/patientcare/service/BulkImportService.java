@@ -0,0 +1,312 @@
+package com.healthcare.patientcare.service;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.patientcare.config.CacheConfig;
+import com.healthcare.patientcare.dto.response.ImportReportResponseDTO;
+import com.healthcare.patientcare.dto.response.ImportReportResponseDTO.BatchProgress;
+import com.healthcare.patientcare.dto.response.ImportReportResponseDTO.Failure;
+import com.healthcare.patientcare.dto.response.PatientSummaryResponseDTO;
+import com.healthcare.patientcare.entity.Appointment;
+import com.healthcare.patientcare.entity.Patient;
+import com.healthcare.patientcare.entity.ProgressNote;
+import com.healthcare.patientcare.repository.PatientRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Imports patients, progress notes and appointments from NDJSON or CSV
+ * streams. Records are read one at a time and written in batches, each in its
+ * own transaction, with the inserts sent as JDBC batches. A batch that fails
+ * to commit is bisected until the bad records are isolated, so a bad record
+ * only fails itself.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    public static final int MAX_REPORTED_FAILURES = 100;
+
+    public enum Kind {
+        PATIENTS, PROGRESS_NOTES, APPOINTMENTS;
+
+        public static Kind parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unknown import kind: " + value + " (expected patients, progress_notes or appointments)");
+            }
+        }
+    }
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unknown import format: " + value + " (expected ndjson or csv)");
+            }
+        }
+    }
+
+    @Value("${import.batch-size:1000}")
+    private int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientSearchIndex searchIndex;
+
+    @Autowired
+    private ClinicalTextIndex clinicalTextIndex;
+
+    @Autowired
+    private ProviderSchedule schedule;
+
+    @Autowired
+    private AppointmentAgenda agenda;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * Reads records from {@code input} until it ends, handing progress to the
+     * consumer after every batch. Notes and appointments name their patient by
+     * its patientId (e.g. PAT001); any id column is ignored.
+     */
+    public ImportReportResponseDTO importRecords(Kind kind, Format format, Reader input, Consumer<BatchProgress> progress) {
+        long started = System.nanoTime();
+        ImportReportResponseDTO report = new ImportReportResponseDTO();
+        report.setKind(kind.name().toLowerCase(Locale.ROOT));
+        report.setFormat(format.name().toLowerCase(Locale.ROOT));
+
+        ImportRecordReader reader = format == Format.CSV
+                ? ImportRecordReader.csv(input)
+                : ImportRecordReader.ndjson(input, objectMapper);
+        List<ImportRecordReader.Record> batch = new ArrayList<>(batchSize);
+        try {
+            ImportRecordReader.Record record;
+            while ((record = reader.next()) != null) {
+                report.setRecords(report.getRecords() + 1);
+                batch.add(record);
+                if (batch.size() == batchSize) {
+                    writeBatch(kind, batch, report, progress);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read import stream: " + e.getMessage(), e);
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(kind, batch, report, progress);
+        }
+
+        report.setElapsedMillis((System.nanoTime() - started) / 1_000_000);
+        log.info("Imported {} of {} {} records in {} batches ({} ms)", report.getImported(), report.getRecords(),
+                report.getKind(), report.getBatches(), report.getElapsedMillis());
+        return report;
+    }
+
+    private void writeBatch(Kind kind, List<ImportRecordReader.Record> records,
+                            ImportReportResponseDTO report, Consumer<BatchProgress> progress) {
+        List<Failure> failures = new ArrayList<>();
+        int imported = write(kind, records, failures);
+
+        report.setBatches(report.getBatches() + 1);
+        report.setImported(report.getImported() + imported);
+        report.setFailureCount(report.getFailureCount() + failures.size());
+        for (Failure failure : failures) {
+            if (report.getFailures().size() == MAX_REPORTED_FAILURES) {
+                break;
+            }
+            report.getFailures().add(failure);
+        }
+        BatchProgress batchProgress = new BatchProgress(report.getBatches(), records.size(), imported,
+                failures.size(), report.getImported(), report.getFailureCount());
+        log.debug("Import batch {}: {}", report.getBatches(), batchProgress);
+        progress.accept(batchProgress);
+    }
+
+    /**
+     * Writes the records in one transaction. If that fails, the chunk is split
+     * in half and each half retried, so a few bad records cost a handful of
+     * extra transactions rather than one per record.
+     */
+    private int write(Kind kind, List<ImportRecordReader.Record> records, List<Failure> failures) {
+        List<Failure> chunkFailures = new ArrayList<>();
+        try {
+            int imported = transactionTemplate.execute(status -> persist(kind, records, chunkFailures));
+            failures.addAll(chunkFailures);
+            return imported;
+        } catch (RuntimeException e) {
+            if (records.size() == 1) {
+                failures.add(new Failure(records.get(0).line, describe(e)));
+                return 0;
+            }
+            int middle = records.size() / 2;
+            return write(kind, records.subList(0, middle), failures)
+                    + write(kind, records.subList(middle, records.size()), failures);
+        }
+    }
+
+    /**
+     * Persists the records that convert cleanly and flushes them as one JDBC
+     * batch per table. Records that don't convert are added to
+     * {@code failures}; a database error or a provider double-booking
+     * propagates and rolls the batch back.
+     */
+    private int persist(Kind kind, List<ImportRecordReader.Record> records, List<Failure> failures) {
+        Map<String, Patient> patients = kind == Kind.PATIENTS ? Map.of() : findPatients(records);
+        List<Patient> newPatients = new ArrayList<>();
+        List<ProgressNote> newNotes = new ArrayList<>();
+        Set<Long> touchedPatients = new HashSet<>();
+        int persisted = 0;
+
+        for (ImportRecordReader.Record record : records) {
+            if (record.error != null) {
+                failures.add(new Failure(record.line, record.error));
+                continue;
+            }
+            Object entity;
+            try {
+                entity = toEntity(kind, record.fields, patients);
+            } catch (RuntimeException e) {
+                failures.add(new Failure(record.line, describe(e)));
+                continue;
+            }
+            entityManager.persist(entity);
+            persisted++;
+            if (entity instanceof Patient patient) {
+                newPatients.add(patient);
+            } else if (entity instanceof ProgressNote note) {
+                newNotes.add(note);
+                touchedPatients.add(note.getPatient().getId());
+            } else if (entity instanceof Appointment appointment) {
+                schedule.update(null, ProviderSchedule.Booking.of(appointment));
+                agenda.putAfterCommit(appointment);
+                touchedPatients.add(appointment.getPatient().getId());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        for (Patient patient : newPatients) {
+            searchIndex.addAfterCommit(PatientSummaryResponseDTO.from(patient));
+        }
+        if (!newNotes.isEmpty()) {
+            clinicalTextIndex.indexAfterCommit(newNotes);
+        }
+        evict(CacheConfig.PATIENTS, touchedPatients);
+        if (kind == Kind.PROGRESS_NOTES) {
+            evict(CacheConfig.PROGRESS_NOTES, touchedPatients);
+        }
+        return persisted;
+    }
+
+    private Map<String, Patient> findPatients(List<ImportRecordReader.Record> records) {
+        Set<String> patientIds = new HashSet<>();
+        for (ImportRecordReader.Record record : records) {
+            if (record.fields != null && record.fields.get("patientId") != null) {
+                patientIds.add(record.fields.get("patientId").toString());
+            }
+        }
+        Map<String, Patient> patients = new HashMap<>();
+        for (Patient patient : patientRepository.findByPatientIdIn(patientIds)) {
+            patients.put(patient.getPatientId(), patient);
+        }
+        return patients;
+    }
+
+    private Object toEntity(Kind kind, Map<String, Object> record, Map<String, Patient> patients) {
+        Map<String, Object> fields = new LinkedHashMap<>(record);
+        fields.remove("id");
+        fields.remove("version");
+        switch (kind) {
+            case PATIENTS -> {
+                Patient patient = objectMapper.convertValue(fields, Patient.class);
+                require(patient.getName(), "name");
+                require(patient.getPatientId(), "patientId");
+                return patient;
+            }
+            case PROGRESS_NOTES -> {
+                Patient patient = patientFor(fields.remove("patientId"), patients);
+                ProgressNote note = objectMapper.convertValue(fields, ProgressNote.class);
+                require(note.getNote(), "note");
+                require(note.getDateTime(), "dateTime");
+                note.setPatient(patient);
+                return note;
+            }
+            default -> {
+                Patient patient = patientFor(fields.remove("patientId"), patients);
+                Appointment appointment = objectMapper.convertValue(fields, Appointment.class);
+                require(appointment.getAppointmentDate(), "appointmentDate");
+                if (appointment.getStatus() == null) {
+                    appointment.setStatus("Scheduled");
+                }
+                appointment.setPatient(patient);
+                return appointment;
+            }
+        }
+    }
+
+    private static Patient patientFor(Object patientId, Map<String, Patient> patients) {
+        require(patientId, "patientId");
+        Patient patient = patients.get(patientId.toString());
+        if (patient == null) {
+            throw new RuntimeException("Patient not found: " + patientId);
+        }
+        return patient;
+    }
+
+    private static void require(Object value, String field) {
+        if (value == null || value instanceof String text && text.isBlank()) {
+            throw new RuntimeException("Missing required field: " + field);
+        }
+    }
+
+    private void evict(String cacheName, Set<Long> patientIds) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            patientIds.forEach(cache::evict);
+        }
+    }
+
+    private static String describe(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        if (e instanceof IllegalArgumentException && e.getCause() instanceof JsonMappingException mapping) {
+            return mapping.getOriginalMessage();
+        }
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        int newline = message.indexOf('\n');
+        return newline > 0 ? message.substring(0, newline) : message;
+    }
+}
@@ -0,0 +1,302 @@
+package com.healthcare.patientcare.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.patientcare.dto.response.ChangeEventDTO;
+import com.healthcare.patientcare.dto.response.ChangeEventsResponseDTO;
+import com.healthcare.patientcare.entity.ChangeEvent;
+import com.healthcare.patientcare.repository.ChangeEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ordered log of changes to patients, care plans, progress notes and
+ * appointments, fed by a transactional outbox. A mutation records its event
+ * in its own transaction, so an event exists exactly when its change
+ * committed. Once it has, a single relay thread gives committed events the
+ * next offsets and wakes subscribers. The relay also runs at startup, so
+ * events left unpublished by a crash go out after the restart, and retries
+ * after a failure. The newest events are served from memory and older ones
+ * from the table, so consumers can resume from any offset within
+ * events.retention, across restarts too.
+ * One application instance is expected to own the log.
+ */
+@Component
+public class ChangeEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeEventLog.class);
+
+    public static final String PATIENT = "patient";
+    public static final String CARE_PLAN = "care_plan";
+    public static final String PROGRESS_NOTE = "progress_note";
+    public static final String APPOINTMENT = "appointment";
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String CANCELLED = "cancelled";
+    public static final String DELETED = "deleted";
+
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final int RELAY_BATCH_SIZE = 500;
+    private static final long PRUNE_INTERVAL_MINUTES = 60;
+
+    @Value("${events.memory-size:10000}")
+    private int memorySize;
+
+    @Value("${events.relay-retry-ms:1000}")
+    private long relayRetryMs;
+
+    @Value("${events.retention:7d}")
+    private Duration retention;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ChangeEventRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // The relay holds the write lock while appending; reads hold the read lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // The newest events, with consecutive offsets
+    private final Deque<ChangeEventDTO> recent = new ArrayDeque<>();
+    private volatile long lastOffset;
+    // Events before this offset have been pruned
+    private volatile long firstOffset;
+
+    private final List<Runnable> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean relayQueued = new AtomicBoolean();
+    private ScheduledExecutorService relayExecutor;
+    private ExecutorService notifyExecutor;
+
+    @PostConstruct
+    void start() {
+        Long last = repository.findMaxLogOffset();
+        lastOffset = last != null ? last : 0;
+        Long first = repository.findMinLogOffset();
+        firstOffset = first != null ? first : lastOffset + 1;
+
+        relayExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "change-event-relay"));
+        relayExecutor.execute(this::relay);
+        relayExecutor.scheduleWithFixedDelay(this::prune, PRUNE_INTERVAL_MINUTES, PRUNE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        notifyExecutor = Executors.newCachedThreadPool(runnable -> daemon(runnable, "change-event-notify"));
+    }
+
+    @PreDestroy
+    void stop() {
+        relayExecutor.shutdownNow();
+        notifyExecutor.shutdownNow();
+    }
+
+    /**
+     * Records a change in the caller's transaction. Pending changes are
+     * flushed first, so the payload carries generated ids and bumped versions.
+     * The event is published once the transaction commits, and never if it
+     * rolls back.
+     */
+    public void record(String aggregateType, String eventType, Long aggregateId, Long patientId, Object payload) {
+        if (payload != null) {
+            entityManager.flush();
+        }
+        ChangeEvent event = new ChangeEvent();
+        event.setAggregateType(aggregateType);
+        event.setEventType(eventType);
+        event.setAggregateId(aggregateId);
+        event.setPatientId(patientId);
+        event.setOccurredAt(LocalDateTime.now());
+        try {
+            event.setPayload(payload != null ? objectMapper.writeValueAsString(payload) : null);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize " + aggregateType + " " + aggregateId + " for its change event", e);
+        }
+        entityManager.persist(event);
+        afterCommit(this::relaySoon);
+    }
+
+    public long lastOffset() {
+        return lastOffset;
+    }
+
+    /**
+     * Up to {@code limit} events after offset {@code after}, optionally only
+     * those of one aggregate type, oldest first.
+     */
+    public ChangeEventsResponseDTO read(long after, int limit, String aggregateType) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long current;
+        List<ChangeEventDTO> events = null;
+        lock.readLock().lock();
+        try {
+            current = lastOffset;
+            if (after > current) {
+                return new ChangeEventsResponseDTO(current, true, List.of());
+            }
+            if (after == current) {
+                return new ChangeEventsResponseDTO(current, false, List.of());
+            }
+            if (!recent.isEmpty() && after >= recent.peekFirst().getOffset() - 1) {
+                // Newest first until the requested offset, then put back in order
+                events = new ArrayList<>();
+                for (Iterator<ChangeEventDTO> it = recent.descendingIterator(); it.hasNext(); ) {
+                    ChangeEventDTO event = it.next();
+                    if (event.getOffset() <= after) {
+                        break;
+                    }
+                    if (aggregateType == null || aggregateType.equals(event.getAggregateType())) {
+                        events.add(event);
+                    }
+                }
+                Collections.reverse(events);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        boolean reset = false;
+        if (events == null) {
+            reset = after + 1 < firstOffset;
+            List<ChangeEvent> rows = aggregateType == null
+                    ? repository.findByLogOffsetGreaterThanOrderByLogOffsetAsc(after, Limit.of(pageSize))
+                    : repository.findByAggregateTypeAndLogOffsetGreaterThanOrderByLogOffsetAsc(aggregateType, after,
+                    Limit.of(pageSize));
+            long published = current;
+            events = rows.stream().filter(row -> row.getLogOffset() <= published).map(ChangeEventDTO::from).toList();
+        }
+        if (events.size() > pageSize) {
+            events = events.subList(0, pageSize);
+        }
+        long next = events.size() == pageSize ? events.get(pageSize - 1).getOffset() : current;
+        return new ChangeEventsResponseDTO(next, reset, List.copyOf(events));
+    }
+
+    /**
+     * Calls the listener on a notifier thread whenever events are published.
+     * Running the returned handle unsubscribes it.
+     */
+    public Runnable subscribe(Runnable listener) {
+        subscribers.add(listener);
+        return () -> subscribers.remove(listener);
+    }
+
+    private void relaySoon() {
+        if (relayQueued.compareAndSet(false, true)) {
+            try {
+                relayExecutor.execute(this::relay);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the outbox keeps the events for the relay at the next start
+            }
+        }
+    }
+
+    private void relay() {
+        relayQueued.set(false);
+        try {
+            List<ChangeEventDTO> published;
+            do {
+                published = transactionTemplate.execute(status -> publishBatch());
+                append(published);
+            } while (published.size() == RELAY_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            log.warn("Change event relay failed, retrying in {} ms: {}", relayRetryMs, e.getMessage());
+            relayExecutor.schedule(this::relaySoon, relayRetryMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Gives committed, unpublished events the next offsets in the order they were recorded
+    private List<ChangeEventDTO> publishBatch() {
+        List<ChangeEvent> pending = repository.findByLogOffsetIsNullOrderByIdAsc(Limit.of(RELAY_BATCH_SIZE));
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        Long max = repository.findMaxLogOffset();
+        long offset = Math.max(lastOffset, max != null ? max : 0);
+        List<ChangeEventDTO> published = new ArrayList<>(pending.size());
+        for (ChangeEvent event : pending) {
+            event.setLogOffset(++offset);
+            published.add(ChangeEventDTO.from(event));
+        }
+        return published;
+    }
+
+    private void append(List<ChangeEventDTO> published) {
+        if (published.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (ChangeEventDTO event : published) {
+                // Offsets taken by someone else leave a gap; reads fall back to the table until it refills
+                if (!recent.isEmpty() && event.getOffset() != recent.peekLast().getOffset() + 1) {
+                    recent.clear();
+                }
+                recent.addLast(event);
+                if (recent.size() > memorySize) {
+                    recent.removeFirst();
+                }
+            }
+            lastOffset = Math.max(lastOffset, published.get(published.size() - 1).getOffset());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        for (Runnable subscriber : subscribers) {
+            notifyExecutor.execute(subscriber);
+        }
+    }
+
+    private void prune() {
+        try {
+            int deleted = transactionTemplate.execute(status ->
+                    repository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+            if (deleted > 0) {
+                Long first = repository.findMinLogOffset();
+                firstOffset = first != null ? first : lastOffset + 1;
+                log.info("Pruned {} change events older than {}", deleted, retention);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Change event pruning failed: {}", e.getMessage());
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,293 @@
+package com.healthcare.patientcare.service;
+
+import com.healthcare.patientcare.dto.response.ClinicalTextHitDTO;
+import com.healthcare.patientcare.entity.CarePlan;
+import com.healthcare.patientcare.entity.ProgressNote;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.*;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.*;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Lucene index over progress note text and care plan goals, interventions and
+ * medications. Every note and care plan is one document keyed by type and id
+ * and replaced in place when it changes, so searches are answered from the
+ * index alone. Held in memory unless search.index.directory names a directory;
+ * an index on disk that was closed cleanly can be reused on the next start
+ * instead of being rebuilt.
+ */
+@Component
+public class ClinicalTextIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ClinicalTextIndex.class);
+
+    public static final String PROGRESS_NOTE = "progress_note";
+    public static final String CARE_PLAN = "care_plan";
+    public static final int MAX_RESULTS = 50;
+
+    private static final String KEY = "key";
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String PATIENT_ID = "patient_id";
+    private static final String DATE_TIME = "date_time";
+    private static final String NOTE = "note";
+    private static final String GOALS = "goals";
+    private static final String INTERVENTIONS = "interventions";
+    private static final String MEDICATIONS = "medications";
+    private static final String[] TEXT_FIELDS = {NOTE, GOALS, INTERVENTIONS, MEDICATIONS};
+    // Commit user data: "true" only in the commit written when the index is closed
+    private static final String CLEAN_SHUTDOWN = "clean_shutdown";
+
+    // Offsets in the postings let the highlighter skip re-analysing stored text
+    private static final FieldType TEXT_WITH_OFFSETS = new FieldType(TextField.TYPE_STORED);
+    static {
+        TEXT_WITH_OFFSETS.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        TEXT_WITH_OFFSETS.freeze();
+    }
+
+    @Value("${search.index.directory:}")
+    private String indexDirectory;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private boolean openedClean;
+    // Set when an after-commit update fails, so the index is rebuilt on the next start
+    private volatile boolean stale;
+
+    @PostConstruct
+    void open() throws IOException {
+        directory = indexDirectory.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexDirectory));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        for (Map.Entry<String, String> entry : writer.getLiveCommitData()) {
+            if (CLEAN_SHUTDOWN.equals(entry.getKey())) {
+                openedClean = "true".equals(entry.getValue());
+            }
+        }
+        // Marked in use straight away, so a crash before the next clean close forces a rebuild
+        writer.setLiveCommitData(Map.of(CLEAN_SHUTDOWN, "false").entrySet());
+        writer.commit();
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (!stale) {
+            writer.setLiveCommitData(Map.of(CLEAN_SHUTDOWN, "true").entrySet());
+        }
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /** Indexes the note once the surrounding transaction commits. */
+    public void indexAfterCommit(ProgressNote note) {
+        indexAfterCommit(List.of(note));
+    }
+
+    /** Indexes the notes once the surrounding transaction commits, refreshing searches once. */
+    public void indexAfterCommit(List<ProgressNote> notes) {
+        List<Document> documents = notes.stream().map(ClinicalTextIndex::toDocument).toList();
+        afterCommit(() -> update(documents));
+    }
+
+    /** Indexes the care plan once the surrounding transaction commits. */
+    public void indexAfterCommit(CarePlan carePlan) {
+        List<Document> documents = List.of(toDocument(carePlan));
+        afterCommit(() -> update(documents));
+    }
+
+    /** Adds without refreshing; call {@link #refresh()} once a bulk load is done. */
+    public void add(ProgressNote note) {
+        write(toDocument(note));
+    }
+
+    public void add(CarePlan carePlan) {
+        write(toDocument(carePlan));
+    }
+
+    /**
+     * Whether the index opened from disk can stand in for a rebuild: it was
+     * closed cleanly, so it holds every change committed before the shutdown,
+     * and it has as many documents as there are notes and care plans.
+     */
+    public boolean isCurrent(long expectedDocuments) {
+        return openedClean && writer.getDocStats().numDocs == expectedDocuments;
+    }
+
+    public void clear() {
+        try {
+            writer.deleteAll();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to clear clinical text index", e);
+        }
+    }
+
+    /** Commits pending writes and makes them visible to searches. */
+    public void refresh() {
+        try {
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to refresh clinical text index", e);
+        }
+    }
+
+    /**
+     * Returns the best-scoring notes and care plans for a free-text query,
+     * optionally narrowed to one document type and one patient, each with
+     * highlighted snippets of the fields that matched. Quoted phrases, +/-
+     * operators and trailing * prefixes are understood; terms are otherwise
+     * OR-ed and ranked by BM25.
+     */
+    public List<ClinicalTextHitDTO> search(String query, String type, Long patientId, int limit) {
+        Query textQuery = new SimpleQueryParser(analyzer, textFieldWeights()).parse(query == null ? "" : query);
+        if (textQuery == null || textQuery instanceof MatchNoDocsQuery) {
+            return List.of();
+        }
+        BooleanQuery.Builder builder = new BooleanQuery.Builder().add(textQuery, BooleanClause.Occur.MUST);
+        if (type != null && !type.isBlank()) {
+            builder.add(new TermQuery(new Term(TYPE, type)), BooleanClause.Occur.FILTER);
+        }
+        if (patientId != null) {
+            builder.add(LongPoint.newExactQuery(PATIENT_ID, patientId), BooleanClause.Occur.FILTER);
+        }
+        Query filtered = builder.build();
+        int maxResults = Math.max(1, Math.min(limit, MAX_RESULTS));
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(filtered, maxResults);
+                Map<String, String[]> snippets = UnifiedHighlighter.builder(searcher, analyzer).build()
+                        .highlightFields(TEXT_FIELDS, textQuery, topDocs);
+                StoredFields storedFields = searcher.storedFields();
+
+                List<ClinicalTextHitDTO> hits = new ArrayList<>(topDocs.scoreDocs.length);
+                for (int i = 0; i < topDocs.scoreDocs.length; i++) {
+                    ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                    Document document = storedFields.document(scoreDoc.doc);
+                    Map<String, String> highlights = new LinkedHashMap<>();
+                    for (String field : TEXT_FIELDS) {
+                        String snippet = snippets.get(field)[i];
+                        if (snippet != null) {
+                            highlights.put(field, snippet);
+                        }
+                    }
+                    String dateTime = document.get(DATE_TIME);
+                    hits.add(new ClinicalTextHitDTO(
+                            document.get(TYPE),
+                            document.getField(ID).numericValue().longValue(),
+                            document.getField(PATIENT_ID).numericValue().longValue(),
+                            dateTime != null ? LocalDateTime.parse(dateTime) : null,
+                            scoreDoc.score,
+                            highlights));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Clinical text search failed", e);
+        }
+    }
+
+    private static Map<String, Float> textFieldWeights() {
+        Map<String, Float> weights = new HashMap<>();
+        for (String field : TEXT_FIELDS) {
+            weights.put(field, 1.0f);
+        }
+        return weights;
+    }
+
+    private void update(List<Document> documents) {
+        try {
+            for (Document document : documents) {
+                write(document);
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException | RuntimeException e) {
+            // The change is already committed; a stale entry is fixed by the next rebuild
+            stale = true;
+            log.warn("Failed to index {} clinical text documents", documents.size(), e);
+        }
+    }
+
+    private void write(Document document) {
+        try {
+            writer.updateDocument(new Term(KEY, document.get(KEY)), document);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to index " + document.get(KEY), e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Document toDocument(ProgressNote note) {
+        Document document = baseDocument(PROGRESS_NOTE, note.getId(), note.getPatient().getId());
+        addText(document, NOTE, note.getNote());
+        if (note.getDateTime() != null) {
+            document.add(new StoredField(DATE_TIME, note.getDateTime().toString()));
+        }
+        return document;
+    }
+
+    private static Document toDocument(CarePlan carePlan) {
+        Document document = baseDocument(CARE_PLAN, carePlan.getId(), carePlan.getPatient().getId());
+        addText(document, GOALS, carePlan.getGoals());
+        addText(document, INTERVENTIONS, carePlan.getInterventions());
+        addText(document, MEDICATIONS, carePlan.getMedications());
+        return document;
+    }
+
+    private static Document baseDocument(String type, Long id, Long patientId) {
+        Document document = new Document();
+        document.add(new StringField(KEY, type + ":" + id, Field.Store.YES));
+        document.add(new StringField(TYPE, type, Field.Store.YES));
+        document.add(new StoredField(ID, id));
+        document.add(new LongPoint(PATIENT_ID, patientId));
+        document.add(new StoredField(PATIENT_ID, patientId));
+        return document;
+    }
+
+    private static void addText(Document document, String field, String text) {
+        if (text != null && !text.isBlank()) {
+            document.add(new Field(field, text, TEXT_WITH_OFFSETS));
+        }
+    }
+}
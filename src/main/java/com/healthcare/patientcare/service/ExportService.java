@@ -0,0 +1,118 @@
+package com.healthcare.patientcare.service;
+
+import com.healthcare.patientcare.dto.response.PatientExportResponseDTO;
+import com.healthcare.patientcare.dto.response.PatientSummaryResponseDTO;
+import com.healthcare.patientcare.entity.Appointment;
+import com.healthcare.patientcare.entity.CarePlan;
+import com.healthcare.patientcare.entity.ProgressNote;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Exports full patient records. Patients, care plans, notes and appointments
+ * are each read through one forward-only, read-only cursor ordered by patient
+ * id, and the four cursors are merged like a sorted merge join. A cohort of
+ * any size therefore costs four statements and holds one patient's record in
+ * memory at a time.
+ */
+@Service
+public class ExportService {
+
+    private static final int FETCH_SIZE = 500;
+    private static final int CLEAR_INTERVAL = 100;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Hands the full record of every patient, or only of {@code patientIds}
+     * when given, to the consumer in patient id order.
+     */
+    @Transactional(readOnly = true)
+    public void exportPatients(Collection<Long> patientIds, Consumer<PatientExportResponseDTO> consumer) {
+        // Patients are projected: loading the entity would also fetch its care plan row by row
+        try (Stream<PatientSummaryResponseDTO> patients = stream(PatientSummaryResponseDTO.class,
+                     "select new " + PatientSummaryResponseDTO.class.getName() + "(p.id, p.name, p.patientId,"
+                             + " p.dateOfBirth, p.gender, p.contactNumber, p.email, p.address)"
+                             + " from Patient p %s order by p.id", "p.id", patientIds);
+             Stream<CarePlan> carePlans = stream(CarePlan.class,
+                     "select c from CarePlan c %s order by c.patient.id", "c.patient.id", patientIds);
+             Stream<ProgressNote> notes = stream(ProgressNote.class,
+                     "select n from ProgressNote n %s order by n.patient.id, n.dateTime, n.id", "n.patient.id", patientIds);
+             Stream<Appointment> appointments = stream(Appointment.class,
+                     "select a from Appointment a %s order by a.patient.id, a.appointmentDate, a.id", "a.patient.id", patientIds)) {
+
+            Cursor<CarePlan> carePlanCursor = new Cursor<>(carePlans.iterator(), c -> c.getPatient().getId());
+            Cursor<ProgressNote> noteCursor = new Cursor<>(notes.iterator(), n -> n.getPatient().getId());
+            Cursor<Appointment> appointmentCursor = new Cursor<>(appointments.iterator(), a -> a.getPatient().getId());
+
+            int exported = 0;
+            Iterator<PatientSummaryResponseDTO> patientIterator = patients.iterator();
+            while (patientIterator.hasNext()) {
+                PatientSummaryResponseDTO patient = patientIterator.next();
+                Long id = patient.getId();
+                List<CarePlan> carePlan = carePlanCursor.takeFor(id);
+                consumer.accept(new PatientExportResponseDTO(
+                        patient,
+                        carePlan.isEmpty() ? null : carePlan.get(0),
+                        noteCursor.takeFor(id),
+                        appointmentCursor.takeFor(id)));
+                // Rows are only read once, so nothing needs to stay managed
+                if (++exported % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    private <T> Stream<T> stream(Class<T> type, String jpql, String patientIdPath, Collection<Long> patientIds) {
+        boolean filtered = patientIds != null && !patientIds.isEmpty();
+        TypedQuery<T> query = entityManager.createQuery(
+                        String.format(jpql, filtered ? "where " + patientIdPath + " in :ids" : ""), type)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (filtered) {
+            query.setParameter("ids", patientIds);
+        }
+        return query.getResultStream();
+    }
+
+    /** A sorted child-row cursor that hands out the rows belonging to one patient at a time. */
+    private static class Cursor<T> {
+        private final Iterator<T> rows;
+        private final Function<T, Long> patientIdOf;
+        private T next;
+
+        Cursor(Iterator<T> rows, Function<T, Long> patientIdOf) {
+            this.rows = rows;
+            this.patientIdOf = patientIdOf;
+            this.next = rows.hasNext() ? rows.next() : null;
+        }
+
+        List<T> takeFor(Long patientId) {
+            // Rows of patients outside the cohort can't occur, but skip anything ordered before it
+            while (next != null && patientIdOf.apply(next) < patientId) {
+                advance();
+            }
+            List<T> taken = new ArrayList<>();
+            while (next != null && patientIdOf.apply(next).equals(patientId)) {
+                taken.add(next);
+                advance();
+            }
+            return taken;
+        }
+
+        private void advance() {
+            next = rows.hasNext() ? rows.next() : null;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.healthcare.patientcare.service;
+
+/**
+ * Thrown when an idempotency key is sent again with a different request than
+ * the one it was first used for. Replaying the stored result would be wrong,
+ * and running the new request would defeat the key.
+ */
+public class IdempotencyKeyReuseException extends RuntimeException {
+
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+}
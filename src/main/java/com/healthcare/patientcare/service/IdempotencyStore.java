@@ -0,0 +1,113 @@
+package com.healthcare.patientcare.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of writes sent with an idempotency key, so a retried
+ * request returns the first result instead of running again. A retry that
+ * arrives while the first attempt is still running waits for it. Only
+ * successful outcomes are kept: a failed write committed nothing, so its retry
+ * runs afresh. Bounded by idempotency.max-keys and idempotency.ttl.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+
+    @Value("${idempotency.max-keys:10000}")
+    private long maxKeys;
+
+    @Value("${idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Cache<String, Entry> entries;
+
+    // SHA-256 of the serialized request, so a different request never passes for the first one
+    private record Entry(byte[] fingerprint, CompletableFuture<Object> outcome) {
+    }
+
+    @PostConstruct
+    void init() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public <T> T execute(String scope, String key, Object request, Supplier<T> action) {
+        return execute(scope, key, request, action, result -> true);
+    }
+
+    /**
+     * Runs {@code action} once per {@code scope} and {@code key}. A null key
+     * runs it unconditionally. Results that fail {@code keep} are returned but
+     * not remembered.
+     *
+     * @throws IdempotencyKeyReuseException if the key was used for a different request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String key, Object request, Supplier<T> action, Predicate<T> keep) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String storeKey = scope + "\n" + key;
+        byte[] fingerprint = fingerprint(request);
+        CompletableFuture<Object> outcome = new CompletableFuture<>();
+        Entry existing = entries.asMap().putIfAbsent(storeKey, new Entry(fingerprint, outcome));
+        if (existing != null) {
+            if (!MessageDigest.isEqual(existing.fingerprint(), fingerprint)) {
+                throw new IdempotencyKeyReuseException("Idempotency key " + key + " was already used for a different request");
+            }
+            try {
+                return (T) existing.outcome().join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            T result = action.get();
+            if (!keep.test(result)) {
+                entries.asMap().remove(storeKey);
+            }
+            outcome.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            entries.asMap().remove(storeKey);
+            outcome.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Cannot fingerprint request: " + e.getOriginalMessage(), e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
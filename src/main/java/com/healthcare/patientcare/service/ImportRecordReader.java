@@ -0,0 +1,180 @@
+package com.healthcare.patientcare.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pulls one import record at a time from an NDJSON or CSV stream, so a file is
+ * never held in memory. A record that can't be parsed is returned with an
+ * error instead of ending the import.
+ */
+abstract class ImportRecordReader {
+
+    static class Record {
+        final long line;
+        final Map<String, Object> fields;
+        final String error;
+
+        Record(long line, Map<String, Object> fields, String error) {
+            this.line = line;
+            this.fields = fields;
+            this.error = error;
+        }
+    }
+
+    protected final BufferedReader reader;
+    protected long lineNumber;
+
+    ImportRecordReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    static ImportRecordReader ndjson(Reader reader, ObjectMapper objectMapper) {
+        return new Ndjson(reader, objectMapper);
+    }
+
+    static ImportRecordReader csv(Reader reader) {
+        return new Csv(reader);
+    }
+
+    /** Returns the next record, or null at the end of the stream. */
+    abstract Record next() throws IOException;
+
+    protected String readLine() throws IOException {
+        String line = reader.readLine();
+        if (line != null) {
+            lineNumber++;
+        }
+        return line;
+    }
+
+    /** One JSON object per line; blank lines are skipped. */
+    private static class Ndjson extends ImportRecordReader {
+        private static final TypeReference<LinkedHashMap<String, Object>> OBJECT = new TypeReference<>() {};
+
+        private final ObjectMapper objectMapper;
+
+        Ndjson(Reader reader, ObjectMapper objectMapper) {
+            super(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        Record next() throws IOException {
+            String line;
+            do {
+                line = readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            try {
+                return new Record(lineNumber, objectMapper.readValue(line, OBJECT), null);
+            } catch (JsonProcessingException e) {
+                return new Record(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * RFC 4180 CSV with a header row naming the fields. Quoted values may hold
+     * commas, doubled quotes and line breaks; empty values are left out.
+     */
+    private static class Csv extends ImportRecordReader {
+        private List<String> header;
+
+        Csv(Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        Record next() throws IOException {
+            if (header == null) {
+                String line = readLine();
+                if (line == null) {
+                    return null;
+                }
+                header = new ArrayList<>();
+                for (String name : split(line, lineNumber)) {
+                    header.add(name.trim());
+                }
+            }
+            String line;
+            do {
+                line = readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            long start = lineNumber;
+            List<String> values;
+            try {
+                values = split(line, start);
+            } catch (IllegalArgumentException e) {
+                return new Record(start, null, e.getMessage());
+            }
+            if (values.size() != header.size()) {
+                return new Record(start, null, "Expected " + header.size() + " columns but found " + values.size());
+            }
+            Map<String, Object> fields = new LinkedHashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                if (!values.get(i).isEmpty()) {
+                    fields.put(header.get(i), values.get(i));
+                }
+            }
+            return new Record(start, fields, null);
+        }
+
+        private List<String> split(String line, long start) throws IOException {
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    // A quoted value continues on the next line
+                    line = readLine();
+                    if (line == null) {
+                        throw new IllegalArgumentException("Unterminated quoted value starting on line " + start);
+                    }
+                    value.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c == '"' && i < line.length() && line.charAt(i) == '"') {
+                        value.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        value.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else {
+                    value.append(c);
+                }
+            }
+            values.add(value.toString());
+            return values;
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package com.healthcare.patientcare.service;
+
+import com.healthcare.patientcare.dto.response.PatientSearchResultDTO;
+import com.healthcare.patientcare.dto.response.PatientSummaryResponseDTO;
+import com.healthcare.patientcare.entity.Patient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index behind patient search. Words of each patient's name and
+ * patient ID are kept in a sorted map for prefix lookups, and name words are
+ * also indexed by trigram, so misspelled queries still find candidate words,
+ * which are then ranked by edit distance. Lookups vastly outnumber writes, so a read/write lock
+ * guards the structures.
+ */
+@Component
+public class PatientSearchIndex {
+
+    public static final int MAX_RESULTS = 50;
+
+    // Per-document match codes for one query word; lower is better, PREFIX + n means n edits
+    private static final byte NO_MATCH = 0;
+    private static final byte EXACT = 1;
+    private static final byte PREFIX = 2;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Document number -> entry; a re-added patient keeps its document number
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<Long, Integer> documentByPatient = new HashMap<>();
+    private final NavigableMap<String, Postings> words = new TreeMap<>();
+    // Trigram -> distinct words containing it, for fuzzy matching
+    private final Map<String, List<String>> wordsByTrigram = new HashMap<>();
+
+    /**
+     * Indexes the patient once the surrounding transaction commits, so rolled
+     * back inserts never become searchable. Without a transaction it is indexed
+     * immediately.
+     */
+    public void addAfterCommit(PatientSummaryResponseDTO patient) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(patient);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(patient);
+            }
+        });
+    }
+
+    public void add(PatientSummaryResponseDTO patient) {
+        String[] tokens = new LinkedHashSet<>(Arrays.asList(tokenize(patient.getName() + " " + patient.getPatientId())))
+                .toArray(String[]::new);
+        lock.writeLock().lock();
+        try {
+            Integer previous = documentByPatient.get(patient.getId());
+            if (previous == null) {
+                int document = entries.size();
+                documentByPatient.put(patient.getId(), document);
+                entries.add(new Entry(patient, tokens));
+                for (String token : tokens) {
+                    addPosting(token, document);
+                }
+                return;
+            }
+            // Re-added: the patient keeps its document, and only words that changed move
+            int document = previous;
+            Set<String> oldTokens = new HashSet<>(Arrays.asList(entries.get(document).tokens));
+            Set<String> newTokens = new HashSet<>(Arrays.asList(tokens));
+            entries.set(document, new Entry(patient, tokens));
+            for (String token : oldTokens) {
+                if (!newTokens.contains(token)) {
+                    removePosting(token, document);
+                }
+            }
+            for (String token : tokens) {
+                if (!oldTokens.contains(token)) {
+                    addPosting(token, document);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addPosting(String token, int document) {
+        Postings postings = words.get(token);
+        if (postings == null) {
+            postings = new Postings();
+            words.put(token, postings);
+            if (!hasDigit(token)) {
+                for (String trigram : new HashSet<>(trigrams(token))) {
+                    wordsByTrigram.computeIfAbsent(trigram, t -> new ArrayList<>()).add(token);
+                }
+            }
+        }
+        postings.add(document);
+    }
+
+    // A word no patient has any more leaves the vocabulary, so fuzzy matching never considers it
+    private void removePosting(String token, int document) {
+        Postings postings = words.get(token);
+        if (postings == null || !postings.remove(document) || postings.size > 0) {
+            return;
+        }
+        words.remove(token);
+        if (!hasDigit(token)) {
+            for (String trigram : new HashSet<>(trigrams(token))) {
+                List<String> trigramWords = wordsByTrigram.get(trigram);
+                if (trigramWords != null) {
+                    trigramWords.remove(token);
+                    if (trigramWords.isEmpty()) {
+                        wordsByTrigram.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            documentByPatient.clear();
+            words.clear();
+            wordsByTrigram.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentByPatient.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} patients where every query word matches one
+     * of their words, best first. A query word matches a word it equals, a
+     * word it is a prefix of, or, failing those, a word within a small edit
+     * distance. Fuzzy matching runs over the distinct words rather than over
+     * patients, and match codes are kept only for matched patients, so the
+     * cost grows with the vocabulary and the matches, not the patient count.
+     */
+    public List<PatientSearchResultDTO> search(String query, int limit) {
+        String[] queryTokens = tokenize(query);
+        if (queryTokens.length == 0) {
+            return List.of();
+        }
+        int maxResults = Math.max(1, Math.min(limit, MAX_RESULTS));
+
+        lock.readLock().lock();
+        try {
+            MatchCodes[] codes = new MatchCodes[queryTokens.length];
+            MatchCodes rarest = null;
+            for (int t = 0; t < queryTokens.length; t++) {
+                codes[t] = matchToken(queryTokens[t]);
+                if (rarest == null || codes[t].size < rarest.size) {
+                    rarest = codes[t];
+                }
+            }
+
+            TopHits top = new TopHits(maxResults);
+            candidates:
+            for (int i = 0; i < rarest.size; i++) {
+                int doc = rarest.documents[i];
+                int distance = 0;
+                int exactWords = 0;
+                for (MatchCodes tokenCodes : codes) {
+                    int code = tokenCodes.get(doc);
+                    if (code == NO_MATCH) {
+                        continue candidates;
+                    }
+                    if (code == EXACT) {
+                        exactWords++;
+                    } else {
+                        distance += code - PREFIX;
+                    }
+                }
+                top.offer(doc, entries.get(doc), distance, exactWords);
+            }
+            return top.drain();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** How well each document that matches the query word at all matches it. */
+    private MatchCodes matchToken(String queryToken) {
+        MatchCodes matched = new MatchCodes();
+        for (Map.Entry<String, Postings> word : words.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false).entrySet()) {
+            matched.mark(word.getValue(), word.getKey().equals(queryToken) ? EXACT : PREFIX);
+        }
+
+        int allowed = allowedEdits(queryToken);
+        if (allowed == 0) {
+            return matched;
+        }
+        Set<String> queryTrigrams = new HashSet<>(trigrams(queryToken));
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            for (String word : wordsByTrigram.getOrDefault(trigram, List.of())) {
+                shared.merge(word, 1, Integer::sum);
+            }
+        }
+        // Each edit breaks at most three trigrams, and a prefix match loses the end-of-word one
+        int minShared = Math.max(1, queryTrigrams.size() - 3 * allowed - 1);
+        for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+            String word = candidate.getKey();
+            if (candidate.getValue() < minShared || word.startsWith(queryToken)) {
+                continue;
+            }
+            int distance = editDistance(queryToken, word);
+            if (word.length() > queryToken.length()) {
+                distance = Math.min(distance, editDistance(queryToken, word.substring(0, queryToken.length())));
+            }
+            if (distance <= allowed) {
+                matched.mark(words.get(word), (byte) (PREFIX + distance));
+            }
+        }
+        return matched;
+    }
+
+    private static int allowedEdits(String token) {
+        if (token.length() <= 2 || hasDigit(token)) return 0;
+        if (token.length() <= 5) return 1;
+        return 2;
+    }
+
+    private static boolean hasDigit(String token) {
+        return token.chars().anyMatch(Character::isDigit);
+    }
+
+    /**
+     * Optimal string alignment distance: insertions, deletions, substitutions
+     * and adjacent transpositions each cost one edit.
+     */
+    static int editDistance(String a, String b) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previous2[j - 2] + 1);
+                }
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    static String[] tokenize(String text) {
+        String key = Patient.toNameKey(text);
+        if (key == null || key.isEmpty()) {
+            return new String[0];
+        }
+        return Arrays.stream(key.split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    // Padded so that word starts and ends carry their own trigrams
+    static List<String> trigrams(String token) {
+        String padded = "^" + token + "$";
+        if (padded.length() <= 3) {
+            return List.of(padded);
+        }
+        List<String> result = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    private static class Entry {
+        final PatientSummaryResponseDTO patient;
+        final String[] tokens;
+
+        Entry(PatientSummaryResponseDTO patient, String[] tokens) {
+            this.patient = patient;
+            this.tokens = tokens;
+        }
+    }
+
+    /**
+     * Keeps the best {@code capacity} hits as packed rank keys in a max-heap, so
+     * broad prefix queries rank thousands of candidates without allocating.
+     * Keys order by distance, then more whole-word matches, then shorter name,
+     * then index order, with the document number in the low 32 bits.
+     */
+    private class TopHits {
+        private final long[] heap;
+        private int size;
+
+        TopHits(int capacity) {
+            this.heap = new long[capacity];
+        }
+
+        void offer(int doc, Entry entry, int distance, int exactWords) {
+            long key = (long) Math.min(distance, 127) << 56
+                    | (long) (127 - Math.min(exactWords, 127)) << 48
+                    | (long) Math.min(entry.patient.getName().length(), 0xFFFF) << 32
+                    | doc;
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(size++);
+            } else if (key < heap[0]) {
+                heap[0] = key;
+                siftDown(0);
+            }
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (heap[parent] >= heap[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && heap[left] > heap[largest]) largest = left;
+                if (right < size && heap[right] > heap[largest]) largest = right;
+                if (largest == i) {
+                    return;
+                }
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            long tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+        }
+
+        List<PatientSearchResultDTO> drain() {
+            long[] keys = Arrays.copyOf(heap, size);
+            Arrays.sort(keys);
+            List<PatientSearchResultDTO> results = new ArrayList<>(keys.length);
+            for (long key : keys) {
+                Entry entry = entries.get((int) key);
+                results.add(new PatientSearchResultDTO(entry.patient, (int) (key >>> 56)));
+            }
+            return results;
+        }
+    }
+
+    /** Growable list of document numbers, in insertion order. */
+    private static class Postings {
+        int[] documents = new int[4];
+        int size;
+
+        void add(int document) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+
+        boolean remove(int document) {
+            for (int i = 0; i < size; i++) {
+                if (documents[i] == document) {
+                    System.arraycopy(documents, i + 1, documents, i, size - i - 1);
+                    size--;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Match codes of the documents one query word matched, in an open
+     * addressing table sized by the matches. Documents are also listed in the
+     * order they first matched, for iterating candidates.
+     */
+    private static class MatchCodes extends Postings {
+        private int[] keys = new int[16];
+        private byte[] values = new byte[16];
+
+        byte get(int document) {
+            int mask = keys.length - 1;
+            for (int slot = hash(document) & mask; values[slot] != NO_MATCH; slot = (slot + 1) & mask) {
+                if (keys[slot] == document) {
+                    return values[slot];
+                }
+            }
+            return NO_MATCH;
+        }
+
+        // Keeps the best code when several words of a document match
+        void mark(Postings postings, byte code) {
+            for (int i = 0; i < postings.size; i++) {
+                put(postings.documents[i], code);
+            }
+        }
+
+        private void put(int document, byte code) {
+            int mask = keys.length - 1;
+            int slot = hash(document) & mask;
+            while (values[slot] != NO_MATCH) {
+                if (keys[slot] == document) {
+                    if (code < values[slot]) {
+                        values[slot] = code;
+                    }
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = document;
+            values[slot] = code;
+            add(document);
+            if (size * 2 > keys.length) {
+                rehash();
+            }
+        }
+
+        private void rehash() {
+            int[] oldKeys = keys;
+            byte[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new byte[oldValues.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != NO_MATCH) {
+                    int slot = hash(oldKeys[i]) & mask;
+                    while (values[slot] != NO_MATCH) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int hash(int document) {
+            int h = document * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -1,21 +1,45 @@
 package com.healthcare.patientcare.service;
 
+import com.healthcare.patientcare.config.CacheConfig;
+import com.healthcare.patientcare.dto.response.ClinicalTextHitDTO;
+import com.healthcare.patientcare.dto.response.CursorPageResponseDTO;
+import com.healthcare.patientcare.dto.response.PatientSearchResultDTO;
+import com.healthcare.patientcare.dto.response.PatientSummaryResponseDTO;
 import com.healthcare.patientcare.entity.Patient;
 import com.healthcare.patientcare.entity.ProgressNote;
 import com.healthcare.patientcare.entity.CarePlan;
 import com.healthcare.patientcare.repository.PatientRepository;
 import com.healthcare.patientcare.repository.ProgressNoteRepository;
 import com.healthcare.patientcare.repository.CarePlanRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class PatientService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private PatientRepository patientRepository;
 
@@ -25,32 +49,126 @@ public class PatientService {
     @Autowired
     private CarePlanRepository carePlanRepository;
 
+    @Autowired
+    private PatientSearchIndex searchIndex;
+
+    @Autowired
+    private ClinicalTextIndex clinicalTextIndex;
+
+    @Autowired
+    private ChangeEventLog changeEventLog;
+
     public Optional<Patient> getPatientByName(String name) {
-        return patientRepository.findByName(name);
+        return patientRepository.findFirstWithDetailsByNameKey(Patient.toNameKey(name));
     }
 
+    @Cacheable(cacheNames = CacheConfig.PATIENTS, key = "#id", unless = "#result == null")
     public Optional<Patient> getPatientById(Long id) {
-        return patientRepository.findById(id);
+        Optional<Patient> patient = patientRepository.findWithDetailsById(id);
+        // Cached instances outlive the session, so load the last serialized association now
+        patient.ifPresent(p -> Hibernate.initialize(p.getAppointments()));
+        return patient;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<PatientSummaryResponseDTO> getPatientsPage(String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<PatientSummaryResponseDTO> rows = patientRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPageResponseDTO.decodeCursor(cursor), Limit.of(pageSize + 1));
+        return CursorPageResponseDTO.fromRows(rows, pageSize, PatientSummaryResponseDTO::getId);
+    }
+
+    /**
+     * Hands every patient summary to the consumer in id order, reading through a
+     * database cursor. Rows are projected to DTOs, so nothing accumulates in the
+     * persistence context and memory use stays flat.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllPatients(Consumer<PatientSummaryResponseDTO> consumer) {
+        try (Stream<PatientSummaryResponseDTO> patients = patientRepository.streamAllByOrderByIdAsc()) {
+            patients.forEach(consumer);
+        }
+    }
+
+    // Served entirely from memory, so no transaction is started
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<PatientSearchResultDTO> searchPatients(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+
+    /** Loads every patient into the search index once seed data and runners have finished. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildSearchIndex() {
+        searchIndex.clear();
+        streamAllPatients(searchIndex::add);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ClinicalTextHitDTO> searchClinicalText(String query, String type, Long patientId, int limit) {
+        return clinicalTextIndex.search(query, type, patientId, limit);
     }
 
-    public List<Patient> getAllPatients() {
-        return patientRepository.findAll();
+    /**
+     * Reindexes every progress note and care plan at startup, unless an index
+     * kept on disk is already current. Entities are streamed and detached in
+     * batches, so memory stays flat however many notes there are.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildClinicalTextIndex() {
+        if (clinicalTextIndex.isCurrent(progressNoteRepository.count() + carePlanRepository.count())) {
+            return;
+        }
+        clinicalTextIndex.clear();
+        int[] consumed = {0};
+        try (Stream<ProgressNote> notes = progressNoteRepository.streamAllByOrderByIdAsc()) {
+            notes.forEach(note -> {
+                clinicalTextIndex.add(note);
+                if (++consumed[0] % STREAM_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            });
+        }
+        try (Stream<CarePlan> carePlans = carePlanRepository.streamAllByOrderByIdAsc()) {
+            carePlans.forEach(carePlan -> {
+                clinicalTextIndex.add(carePlan);
+                if (++consumed[0] % STREAM_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            });
+        }
+        clinicalTextIndex.refresh();
     }
 
+    @Cacheable(cacheNames = CacheConfig.PROGRESS_NOTES, key = "#patientId")
     public List<ProgressNote> getProgressNotesByPatientId(Long patientId) {
         return progressNoteRepository.findByPatientId(patientId);
     }
 
+    @Cacheable(cacheNames = CacheConfig.CARE_PLANS, key = "#patientId", unless = "#result == null")
     public Optional<CarePlan> getCarePlanByPatientId(Long patientId) {
         return carePlanRepository.findByPatientId(patientId);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CARE_PLANS, key = "#patientId"),
+            @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#patientId")
+    })
     public CarePlan updateCarePlan(Long patientId, CarePlan carePlanRequest) {
         Patient patient = patientRepository.findById(patientId)
                 .orElseThrow(() -> new RuntimeException("Patient not found"));
 
         CarePlan carePlan = carePlanRepository.findByPatientId(patientId)
                 .orElse(new CarePlan());
+        // A request carrying the version it was based on is refused if the plan has moved on;
+        // concurrent updates that both pass this check still collide on the version column
+        if (carePlan.getId() != null && carePlanRequest.getVersion() != null
+                && !carePlanRequest.getVersion().equals(carePlan.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(CarePlan.class, carePlan.getId(),
+                    "Care plan was changed by someone else (now version " + carePlan.getVersion()
+                            + ", request based on " + carePlanRequest.getVersion() + ")", null);
+        }
 
         carePlan.setGoals(carePlanRequest.getGoals());
         carePlan.setInterventions(carePlanRequest.getInterventions());
@@ -60,18 +178,34 @@ public class PatientService {
         carePlan.setStatus(carePlanRequest.getStatus());
         carePlan.setPatient(patient);
 
-        return carePlanRepository.save(carePlan);
+        boolean created = carePlan.getId() == null;
+        CarePlan saved = carePlanRepository.save(carePlan);
+        clinicalTextIndex.indexAfterCommit(saved);
+        changeEventLog.record(ChangeEventLog.CARE_PLAN, created ? ChangeEventLog.CREATED : ChangeEventLog.UPDATED,
+                saved.getId(), patientId, saved);
+        return saved;
     }
 
     public Patient createPatient(Patient patient) {
-        return patientRepository.save(patient);
+        Patient saved = patientRepository.save(patient);
+        searchIndex.addAfterCommit(PatientSummaryResponseDTO.from(saved));
+        changeEventLog.record(ChangeEventLog.PATIENT, ChangeEventLog.CREATED, saved.getId(), saved.getId(),
+                PatientSummaryResponseDTO.from(saved));
+        return saved;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PROGRESS_NOTES, key = "#patientId"),
+            @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#patientId")
+    })
     public ProgressNote addProgressNote(Long patientId, ProgressNote note) {
         Patient patient = patientRepository.findById(patientId)
                 .orElseThrow(() -> new RuntimeException("Patient not found"));
 
         note.setPatient(patient);
-        return progressNoteRepository.save(note);
+        ProgressNote saved = progressNoteRepository.save(note);
+        clinicalTextIndex.indexAfterCommit(saved);
+        changeEventLog.record(ChangeEventLog.PROGRESS_NOTE, ChangeEventLog.CREATED, saved.getId(), patientId, saved);
+        return saved;
     }
 }
\ No newline at end of file
@@ -0,0 +1,273 @@
+package com.healthcare.patientcare.service;
+
+import com.healthcare.patientcare.dto.response.AvailableSlotDTO;
+import com.healthcare.patientcare.entity.Appointment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory calendar of every provider's booked time, used to refuse
+ * overlapping appointments. Each provider's bookings are kept sorted by start,
+ * so conflict checks and free-slot searches only visit bookings near the
+ * requested time. Writers take one of a fixed set of lock stripes chosen by
+ * provider: bookings for different providers proceed in parallel, while two
+ * bookings for the same provider can never both pass the overlap check.
+ * Readers don't lock.
+ */
+@Component
+public class ProviderSchedule {
+
+    private static final int STRIPES = 64;
+
+    @Value("${scheduling.day-start:08:00}")
+    private LocalTime dayStart;
+
+    @Value("${scheduling.day-end:18:00}")
+    private LocalTime dayEnd;
+
+    @Value("${scheduling.slot-minutes:15}")
+    private int slotMinutes;
+
+    private final ConcurrentMap<String, Calendar> calendars = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public ProviderSchedule() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /** A provider's time held by one appointment. Ordered by start, then id, then end. */
+    public static final class Booking implements Comparable<Booking> {
+        private final String provider;
+        private final Long appointmentId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        Booking(String provider, Long appointmentId, LocalDateTime start, LocalDateTime end) {
+            this.provider = provider;
+            this.appointmentId = appointmentId;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * The time the appointment occupies, or null when it occupies none:
+         * cancelled, or without a provider or date.
+         */
+        public static Booking of(Appointment appointment) {
+            if (appointment.getProvider() == null || appointment.getProvider().isBlank()
+                    || appointment.getAppointmentDate() == null
+                    || "Cancelled".equalsIgnoreCase(appointment.getStatus())) {
+                return null;
+            }
+            int duration = appointment.getDurationMinutes() != null
+                    ? appointment.getDurationMinutes()
+                    : Appointment.DEFAULT_DURATION_MINUTES;
+            if (duration <= 0) {
+                throw new RuntimeException("Appointment duration must be positive");
+            }
+            LocalDateTime start = appointment.getAppointmentDate();
+            return new Booking(appointment.getProvider().trim(), appointment.getId(), start, start.plusMinutes(duration));
+        }
+
+        boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+            return start.isBefore(otherEnd) && end.isAfter(otherStart);
+        }
+
+        @Override
+        public int compareTo(Booking other) {
+            int byStart = start.compareTo(other.start);
+            if (byStart != 0) return byStart;
+            int byId = Long.compare(appointmentId, other.appointmentId);
+            return byId != 0 ? byId : end.compareTo(other.end);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Booking other && provider.equals(other.provider) && compareTo(other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(provider, appointmentId, start, end);
+        }
+    }
+
+    /** One provider's bookings, plus the longest one seen so lookups know how far back to start. */
+    private static class Calendar {
+        final ConcurrentSkipListSet<Booking> bookings = new ConcurrentSkipListSet<>();
+        volatile long longestMinutes;
+
+        void add(Booking booking) {
+            bookings.add(booking);
+            longestMinutes = Math.max(longestMinutes, Duration.between(booking.start, booking.end).toMinutes());
+        }
+
+        /** Bookings that could overlap [from, to), in start order. */
+        NavigableSet<Booking> near(LocalDateTime from, LocalDateTime to) {
+            Booking lower = new Booking("", Long.MIN_VALUE, from.minusMinutes(longestMinutes), LocalDateTime.MIN);
+            Booking upper = new Booking("", Long.MIN_VALUE, to, LocalDateTime.MIN);
+            return bookings.subSet(lower, true, upper, false);
+        }
+
+        Booking conflictWith(Booking booking) {
+            for (Booking existing : near(booking.start, booking.end)) {
+                if (!existing.appointmentId.equals(booking.appointmentId) && existing.overlaps(booking.start, booking.end)) {
+                    return existing;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Replaces {@code previous} with {@code next}; either may be null, for a
+     * new booking or a released one. The new time is checked and held at once,
+     * so a concurrent booking can't take it. If the surrounding transaction
+     * rolls back, the new time is given up; the previous time is only released
+     * once it commits.
+     *
+     * @throws SchedulingConflictException if {@code next} overlaps another booking
+     */
+    public void update(Booking previous, Booking next) {
+        if (Objects.equals(previous, next)) {
+            return;
+        }
+        if (next != null) {
+            Calendar calendar = calendar(next.provider);
+            ReentrantLock lock = stripe(next.provider);
+            lock.lock();
+            try {
+                Booking conflict = calendar.conflictWith(next);
+                if (conflict != null) {
+                    throw new SchedulingConflictException("Provider " + next.provider + " is already booked from "
+                            + conflict.start + " to " + conflict.end + " (appointment " + conflict.appointmentId + ")");
+                }
+                calendar.add(next);
+            } finally {
+                lock.unlock();
+            }
+        }
+        onCompletion(
+                () -> remove(previous),
+                () -> remove(next));
+    }
+
+    /** Adds a booking without any check, for loading existing appointments. */
+    public void load(Booking booking) {
+        if (booking != null) {
+            calendar(booking.provider).add(booking);
+        }
+    }
+
+    public void clear() {
+        calendars.clear();
+    }
+
+    /**
+     * Returns free stretches of the provider's working hours between
+     * {@code from} and {@code to} that can fit {@code durationMinutes}, earliest
+     * first. Stretches start on slot boundaries.
+     */
+    public List<AvailableSlotDTO> findAvailableSlots(String provider, LocalDateTime from, LocalDateTime to,
+                                                     int durationMinutes, int limit) {
+        if (durationMinutes <= 0) {
+            throw new RuntimeException("Duration must be positive");
+        }
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("'from' must be before 'to'");
+        }
+        Calendar calendar = calendars.get(provider.trim());
+        List<AvailableSlotDTO> slots = new ArrayList<>();
+        for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()) && slots.size() < limit; day = day.plusDays(1)) {
+            LocalDateTime windowStart = alignUp(max(from, day.atTime(dayStart)));
+            LocalDateTime windowEnd = min(to, day.atTime(dayEnd));
+            if (!windowStart.isBefore(windowEnd)) {
+                continue;
+            }
+            LocalDateTime cursor = windowStart;
+            if (calendar != null) {
+                for (Booking booking : calendar.near(windowStart, windowEnd)) {
+                    if (!booking.end.isAfter(cursor)) {
+                        continue;
+                    }
+                    addIfFits(slots, cursor, booking.start, durationMinutes, limit);
+                    cursor = max(cursor, alignUp(booking.end));
+                }
+            }
+            addIfFits(slots, cursor, windowEnd, durationMinutes, limit);
+        }
+        return slots;
+    }
+
+    private static void addIfFits(List<AvailableSlotDTO> slots, LocalDateTime start, LocalDateTime end,
+                                  int durationMinutes, int limit) {
+        if (slots.size() < limit && !start.plusMinutes(durationMinutes).isAfter(end)) {
+            slots.add(new AvailableSlotDTO(start, end));
+        }
+    }
+
+    private LocalDateTime alignUp(LocalDateTime time) {
+        LocalDateTime truncated = time.withSecond(0).withNano(0);
+        if (truncated.isBefore(time)) {
+            truncated = truncated.plusMinutes(1);
+        }
+        int remainder = (truncated.getHour() * 60 + truncated.getMinute()) % slotMinutes;
+        return remainder == 0 ? truncated : truncated.plusMinutes(slotMinutes - remainder);
+    }
+
+    private void remove(Booking booking) {
+        if (booking != null) {
+            Calendar calendar = calendars.get(booking.provider);
+            if (calendar != null) {
+                calendar.bookings.remove(booking);
+            }
+        }
+    }
+
+    private Calendar calendar(String provider) {
+        return calendars.computeIfAbsent(provider, p -> new Calendar());
+    }
+
+    private ReentrantLock stripe(String provider) {
+        return stripes[Math.floorMod(provider.hashCode(), STRIPES)];
+    }
+
+    private static void onCompletion(Runnable afterCommit, Runnable afterRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            afterCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    afterCommit.run();
+                } else {
+                    afterRollback.run();
+                }
+            }
+        });
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,13 @@
+package com.healthcare.patientcare.service;
+
+/**
+ * Thrown when an appointment would overlap another booking of the same
+ * provider. Kept distinct so callers can answer with a conflict rather than a
+ * generic failure.
+ */
+public class SchedulingConflictException extends RuntimeException {
+
+    public SchedulingConflictException(String message) {
+        super(message);
+    }
+}
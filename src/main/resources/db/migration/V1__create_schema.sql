@@ -0,0 +1,67 @@
+-- Patients, their care plans, progress notes and appointments, as mapped by the entities.
+-- Sequences step by 100 to match the entities' allocationSize: Hibernate takes a block of
+-- 100 ids per sequence call.
+
+create sequence patients_seq start with 1 increment by 100;
+create sequence care_plans_seq start with 1 increment by 100;
+create sequence progress_notes_seq start with 1 increment by 100;
+create sequence appointments_seq start with 1 increment by 100;
+
+create table patients (
+    id bigint not null,
+    name varchar(255) not null,
+    name_key varchar(255) not null,
+    patient_id varchar(255) not null,
+    date_of_birth date,
+    gender varchar(255),
+    contact_number varchar(255),
+    email varchar(255),
+    address varchar(255),
+    constraint pk_patients primary key (id),
+    constraint uk_patients_patient_id unique (patient_id)
+);
+
+create table care_plans (
+    id bigint not null,
+    patient_id bigint not null,
+    goals varchar(3000) not null,
+    interventions varchar(3000),
+    medications varchar(3000),
+    start_date date,
+    review_date date,
+    status varchar(255),
+    version bigint,
+    constraint pk_care_plans primary key (id),
+    constraint uk_care_plans_patient unique (patient_id),
+    constraint fk_care_plans_patient foreign key (patient_id) references patients (id)
+);
+
+create table progress_notes (
+    id bigint not null,
+    patient_id bigint not null,
+    note varchar(2000) not null,
+    date_time timestamp(6) not null,
+    provider varchar(255),
+    note_type varchar(255),
+    constraint pk_progress_notes primary key (id),
+    constraint fk_progress_notes_patient foreign key (patient_id) references patients (id)
+);
+
+create table appointments (
+    id bigint not null,
+    patient_id bigint not null,
+    appointment_date timestamp(6),
+    duration_minutes integer,
+    reason varchar(2000),
+    status varchar(255),
+    provider varchar(255),
+    version bigint,
+    constraint pk_appointments primary key (id),
+    constraint fk_appointments_patient foreign key (patient_id) references patients (id)
+);
+
+create index idx_patients_name_key on patients (name_key);
+create index idx_progress_notes_patient_date on progress_notes (patient_id, date_time);
+create index idx_appointments_date on appointments (appointment_date);
+create index idx_appointments_provider_date on appointments (provider, appointment_date);
+create index idx_appointments_patient_date on appointments (patient_id, appointment_date);
@@ -0,0 +1,20 @@
+-- Transactional outbox for change events. A row is inserted in the same transaction as the change
+-- it describes and is given its place in the event log (log_offset) once that transaction commits;
+-- until then log_offset is null.
+
+create sequence change_events_seq start with 1 increment by 100;
+
+create table change_events (
+    id bigint not null,
+    log_offset bigint,
+    aggregate_type varchar(255) not null,
+    event_type varchar(255) not null,
+    aggregate_id bigint not null,
+    patient_id bigint,
+    occurred_at timestamp(6) not null,
+    payload varchar(16000),
+    constraint pk_change_events primary key (id),
+    constraint uk_change_events_log_offset unique (log_offset)
+);
+
+create index idx_change_events_occurred_at on change_events (occurred_at);
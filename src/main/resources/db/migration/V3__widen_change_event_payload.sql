@@ -0,0 +1,4 @@
+-- A care plan's three 3000-character text fields can exceed 16000 characters once JSON-escaped,
+-- so the payload column holds the aggregate as a clob.
+
+alter table change_events alter column payload set data type clob;
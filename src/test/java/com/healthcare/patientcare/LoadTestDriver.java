@@ -0,0 +1,377 @@
+package com.healthcare.patientcare;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.patientcare.mcp.session.MCPSessionRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Closed-loop load test: each of -Dclients clients sends a request, waits for
+ * the answer and sends the next, drawing from a weighted mix of REST calls and
+ * MCP tools/call requests (reads, searches, scheduling lookups and a few
+ * writes). Each MCP client holds its own session. After a warm-up it prints
+ * throughput and p50/p99/max latency per operation, and with -Dresult writes
+ * the same as JSON.
+ * <p>
+ * Without -Dtarget the application is started in-process and seeded by the
+ * synthetic data generator; program arguments are passed on to it, so any
+ * application property can be overridden. Patients and providers to query are
+ * sampled from the running application either way.
+ *
+ * <pre>
+ * java -cp ... -Dclients=16 -Dseconds=60 -Dpatients=1000000 com.healthcare.patientcare.LoadTestDriver
+ * java -cp ... -Dtarget=http://localhost:8080 -Dresult=target/load.json com.healthcare.patientcare.LoadTestDriver
+ * </pre>
+ */
+public class LoadTestDriver {
+
+    private static final String TARGET = System.getProperty("target", "");
+    private static final int CLIENTS = Integer.getInteger("clients", 16);
+    private static final int SECONDS = Integer.getInteger("seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("warmup.seconds", 10);
+    private static final int SAMPLE = Integer.getInteger("sample", 20_000);
+    private static final String RESULT = System.getProperty("result", "");
+
+    // Seeding when the application is started in-process
+    private static final int PATIENTS = Integer.getInteger("patients", 100_000);
+    private static final int NOTES_PER_PATIENT = Integer.getInteger("notes.per-patient", 5);
+    private static final int PROVIDERS = Integer.getInteger("providers", 50);
+    private static final int APPOINTMENTS_PER_PROVIDER = Integer.getInteger("appointments.per-provider", 2_000);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private record Operation(String name, int weight, Function<Fixtures, HttpRequest.Builder> request) {
+    }
+
+    /** Patients and providers sampled from the target, from which requests pick at random. */
+    private record Fixtures(URI base, List<Long> patientIds, List<String> names, List<String> providers) {
+
+        long patient() {
+            return patientIds.get(ThreadLocalRandom.current().nextInt(patientIds.size()));
+        }
+
+        String name() {
+            return names.get(ThreadLocalRandom.current().nextInt(names.size()));
+        }
+
+        String provider() {
+            return providers.get(ThreadLocalRandom.current().nextInt(providers.size()));
+        }
+
+        LocalDateTime day() {
+            return LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(-3, 8)).atStartOfDay();
+        }
+    }
+
+    // Weights are relative: REST makes up 45 of every 100 requests, MCP tool calls 55, writes 12
+    private static final List<Operation> MIX = List.of(
+            new Operation("GET /api/patients/{id}", 10, f -> get(f, "/api/patients/" + f.patient())),
+            new Operation("GET /api/patients/{id}/progress-notes", 6, f -> get(f, "/api/patients/" + f.patient() + "/progress-notes")),
+            new Operation("GET /api/patients/{id}/care-plan", 4, f -> get(f, "/api/patients/" + f.patient() + "/care-plan")),
+            new Operation("GET /api/patients/search", 5, f -> get(f, "/api/patients/search?limit=10&q=" + encode(f.name()))),
+            new Operation("GET /api/patients/page", 3, f -> get(f, "/api/patients/page?limit=50&cursor=" + f.patient())),
+            new Operation("GET /api/appointments/by-patient/{id}", 4, f -> get(f, "/api/appointments/by-patient/" + f.patient())),
+            new Operation("GET /api/appointments/agenda", 6, f -> {
+                LocalDateTime day = f.day();
+                return get(f, "/api/appointments/agenda?start=" + day + "&end=" + day.plusDays(1).minusSeconds(1)
+                        + "&provider=" + encode(f.provider()));
+            }),
+            new Operation("GET /api/appointments/available-slots", 4, f -> {
+                LocalDateTime day = f.day();
+                return get(f, "/api/appointments/available-slots?provider=" + encode(f.provider())
+                        + "&from=" + day + "&to=" + day.plusDays(2));
+            }),
+            new Operation("POST /api/patients/{id}/progress-notes", 3, f -> post(f, "/api/patients/" + f.patient() + "/progress-notes",
+                    Map.of("note", "Load test follow-up. BP 128/82.", "dateTime", LocalDateTime.now().withNano(0).toString(),
+                            "provider", f.provider(), "noteType", "Follow-up"))),
+
+            new Operation("tools/call get_patient_by_id", 12, f -> tool(f, "get_patient_by_id", Map.of("patient_id", f.patient()))),
+            new Operation("tools/call get_progress_notes", 8, f -> tool(f, "get_progress_notes", Map.of("patient_id", f.patient()))),
+            new Operation("tools/call get_care_plan", 6, f -> tool(f, "get_care_plan", Map.of("patient_id", f.patient()))),
+            new Operation("tools/call get_appointments", 6, f -> tool(f, "get_appointments", Map.of("patient_id", f.patient()))),
+            new Operation("tools/call search_patients", 6, f -> tool(f, "search_patients", Map.of("query", f.name(), "limit", 10))),
+            new Operation("tools/call search_clinical_text", 4, f -> tool(f, "search_clinical_text",
+                    Map.of("query", "blood pressure", "patient_id", f.patient()))),
+            new Operation("tools/call get_all_patients", 3, f -> tool(f, "get_all_patients",
+                    Map.of("cursor", String.valueOf(f.patient()), "limit", 50))),
+            new Operation("tools/call find_available_slots", 4, f -> {
+                LocalDateTime day = f.day();
+                return tool(f, "find_available_slots", Map.of("provider", f.provider(),
+                        "from", day.toString(), "to", day.plusDays(2).toString()));
+            }),
+            new Operation("tools/call add_progress_note", 3, f -> tool(f, "add_progress_note", Map.of("patient_id", f.patient(),
+                    "note", "Load test observation. HR 72 bpm.", "provider", f.provider(), "note_type", "Observation"))),
+            new Operation("tools/call update_care_plan", 3, f -> tool(f, "update_care_plan", Map.of("patient_id", f.patient(),
+                    "goals", "Maintain blood pressure below 130/80", "interventions", "Daily walks, low sodium diet",
+                    "medications", "Lisinopril 10mg once daily", "status", "Active")))
+    );
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext context = TARGET.isBlank() ? start(args) : null;
+        try {
+            URI base = URI.create(context != null
+                    ? "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort()
+                    : TARGET.replaceAll("/$", ""));
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            Fixtures fixtures = sample(client, base);
+            System.out.printf("%s: %d clients, %d s (+%d s warm-up), %d patients and %d providers sampled%n",
+                    base, CLIENTS, SECONDS, WARMUP_SECONDS, fixtures.patientIds().size(), fixtures.providers().size());
+            List<Result> results = drive(client, fixtures);
+
+            System.out.println(Result.HEADER);
+            results.forEach(System.out::println);
+            if (!RESULT.isBlank()) {
+                Map<String, Object> report = new LinkedHashMap<>();
+                report.put("target", base.toString());
+                report.put("clients", CLIENTS);
+                report.put("seconds", SECONDS);
+                report.put("operations", results);
+                mapper.writerWithDefaultPrettyPrinter().writeValue(new File(RESULT), report);
+                System.out.println("Results written to " + RESULT);
+            }
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String[] args) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.healthcare.patientcare.config=INFO",
+                "--seed.synthetic.patients=" + PATIENTS,
+                "--seed.synthetic.notes-per-patient=" + NOTES_PER_PATIENT,
+                "--seed.synthetic.providers=" + PROVIDERS,
+                "--seed.synthetic.appointments-per-provider=" + APPOINTMENTS_PER_PROVIDER));
+        // Later arguments win, so the caller's override the defaults above
+        arguments.addAll(List.of(args));
+        return new SpringApplicationBuilder(PatientCareApplication.class).run(arguments.toArray(String[]::new));
+    }
+
+    /** Walks the patient listing for up to SAMPLE patients and collects providers from the coming week's agenda. */
+    private static Fixtures sample(HttpClient client, URI base) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        String cursor = "";
+        while (ids.size() < SAMPLE && cursor != null) {
+            JsonNode page = read(client, base, "/api/patients/page?limit=500&cursor=" + cursor);
+            for (JsonNode patient : page.path("items")) {
+                ids.add(patient.path("id").asLong());
+                names.add(patient.path("name").asText());
+            }
+            cursor = page.path("nextCursor").isTextual() ? page.path("nextCursor").asText() : null;
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No patients at " + base);
+        }
+        Set<String> providers = new TreeSet<>();
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        for (JsonNode appointment : read(client, base, "/api/appointments/agenda?start=" + today.minusDays(7)
+                + "&end=" + today.plusDays(7)).path("appointments")) {
+            if (appointment.hasNonNull("provider")) {
+                providers.add(appointment.path("provider").asText());
+            }
+        }
+        if (providers.isEmpty()) {
+            providers.add("Dr. Sarah Johnson");
+        }
+        return new Fixtures(base, ids, names, new ArrayList<>(providers));
+    }
+
+    private static List<Result> drive(HttpClient client, Fixtures fixtures) throws Exception {
+        int totalWeight = MIX.stream().mapToInt(Operation::weight).sum();
+        long warmupEnds = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long deadline = warmupEnds + TimeUnit.SECONDS.toNanos(SECONDS);
+        List<Samples[]> perClient = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong failedSessions = new AtomicLong();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            Thread thread = new Thread(() -> {
+                Samples[] samples = new Samples[MIX.size()];
+                Arrays.setAll(samples, i -> new Samples());
+                perClient.add(samples);
+                String session;
+                try {
+                    session = initialize(client, fixtures.base());
+                } catch (Exception e) {
+                    failedSessions.incrementAndGet();
+                    return;
+                }
+                while (System.nanoTime() < deadline) {
+                    int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+                    int op = 0;
+                    while (pick >= MIX.get(op).weight()) {
+                        pick -= MIX.get(op++).weight();
+                    }
+                    HttpRequest.Builder request = MIX.get(op).request().apply(fixtures);
+                    if (session != null) {
+                        request.header(MCPSessionRegistry.SESSION_HEADER, session);
+                    }
+                    long started = System.nanoTime();
+                    boolean ok = send(client, request.build());
+                    long elapsed = System.nanoTime() - started;
+                    if (started >= warmupEnds) {
+                        samples[op].add(elapsed, ok);
+                    }
+                }
+            }, "load-client-" + c);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failedSessions.get() > 0) {
+            System.out.println(failedSessions.get() + " clients could not open an MCP session");
+        }
+
+        List<Result> results = new ArrayList<>();
+        Samples total = new Samples();
+        for (int op = 0; op < MIX.size(); op++) {
+            Samples merged = new Samples();
+            for (Samples[] samples : perClient) {
+                merged.addAll(samples[op]);
+            }
+            total.addAll(merged);
+            results.add(merged.result(MIX.get(op).name()));
+        }
+        results.add(total.result("total"));
+        return results;
+    }
+
+    private static boolean send(HttpClient client, HttpRequest request) {
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400) {
+                return false;
+            }
+            if (!request.uri().getPath().equals("/mcp")) {
+                return true;
+            }
+            JsonNode body = mapper.readTree(response.body());
+            return !body.has("error") && !body.path("result").path("isError").asBoolean(false);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static String initialize(HttpClient client, URI base) throws Exception {
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(base.resolve("/mcp"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"jsonrpc\":\"2.0\",\"id\":0,\"method\":\"initialize\",\"params\":{}}"))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        return response.headers().firstValue(MCPSessionRegistry.SESSION_HEADER).orElse(null);
+    }
+
+    private static JsonNode read(HttpClient client, URI base, String path) throws Exception {
+        HttpResponse<String> response = client.send(get(base, path).build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        }
+        return mapper.readTree(response.body());
+    }
+
+    private static HttpRequest.Builder get(Fixtures fixtures, String path) {
+        return get(fixtures.base(), path);
+    }
+
+    private static HttpRequest.Builder get(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(Duration.ofSeconds(60)).GET();
+    }
+
+    private static HttpRequest.Builder post(Fixtures fixtures, String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(fixtures.base().resolve(path))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static HttpRequest.Builder tool(Fixtures fixtures, String name, Map<String, Object> arguments) {
+        return post(fixtures, "/mcp", Map.of("jsonrpc", "2.0", "id", 1, "method", "tools/call",
+                "params", Map.of("name", name, "arguments", arguments)));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /** Latencies of one operation as seen by one client, growing as needed. */
+    private static class Samples {
+        long[] nanos = new long[1024];
+        int size;
+        long errors;
+
+        void add(long elapsed, boolean ok) {
+            if (!ok) {
+                errors++;
+                return;
+            }
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = elapsed;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.nanos[i], true);
+            }
+            errors += other.errors;
+        }
+
+        Result result(String operation) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return new Result(operation, size, errors, size / (double) SECONDS,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), size == 0 ? Double.NaN : sorted[size - 1] / 1_000_000.0);
+        }
+
+        private static double percentile(long[] sorted, double fraction) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))] / 1_000_000.0;
+        }
+    }
+
+    private record Result(String operation, long calls, long errors, double throughput,
+                          double p50Millis, double p99Millis, double maxMillis) {
+        static final String HEADER = String.format("%-42s %8s %7s %8s %9s %9s %9s",
+                "operation", "calls", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+
+        @Override
+        public String toString() {
+            return String.format("%-42s %8d %7d %8.1f %9.2f %9.2f %9.2f",
+                    operation, calls, errors, throughput, p50Millis, p99Millis, maxMillis);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.healthcare.patientcare.config;
+
+import com.healthcare.patientcare.entity.Patient;
+import com.healthcare.patientcare.service.AppointmentService;
+import com.healthcare.patientcare.service.PatientService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:synthetic",
+		"seed.synthetic.patients=250",
+		"seed.synthetic.notes-per-patient=3",
+		"seed.synthetic.providers=4",
+		"seed.synthetic.appointments-per-provider=40",
+		"seed.synthetic.batch-size=64"
+})
+class SyntheticDataGeneratorTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PatientService patientService;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Test
+	void generatesConfiguredVolumes() {
+		assertEquals(250, count("SELECT COUNT(*) FROM patients WHERE patient_id LIKE 'SYN%'"));
+		assertEquals(250, count("SELECT COUNT(*) FROM care_plans c JOIN patients p ON p.id = c.patient_id "
+				+ "WHERE p.patient_id LIKE 'SYN%'"));
+		assertEquals(750, count("SELECT COUNT(*) FROM progress_notes n JOIN patients p ON p.id = n.patient_id "
+				+ "WHERE p.patient_id LIKE 'SYN%'"));
+		assertEquals(160, count("SELECT COUNT(*) FROM appointments a JOIN patients p ON p.id = a.patient_id "
+				+ "WHERE p.patient_id LIKE 'SYN%'"));
+		assertEquals(40, count("SELECT COUNT(*) FROM appointments WHERE provider = 'Dr. James Smith'"));
+		assertEquals(0, count("SELECT COUNT(*) FROM (SELECT provider, appointment_date FROM appointments "
+				+ "GROUP BY provider, appointment_date HAVING COUNT(*) > 1)"));
+	}
+
+	@Test
+	void entitiesSavedAfterwardsGetFreshIds() {
+		Patient patient = new Patient();
+		patient.setName("After Generation");
+		patient.setPatientId("PAT-SYN-AFTER");
+		patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+		Patient saved = patientService.createPatient(patient);
+
+		assertEquals(1, count("SELECT COUNT(*) FROM patients WHERE id = " + saved.getId()));
+		assertEquals(251, count("SELECT COUNT(*) FROM patients WHERE patient_id LIKE 'SYN%' OR id = " + saved.getId()));
+	}
+
+	@Test
+	void generatedRowsAreIndexedAndScheduled() {
+		long id = count("SELECT id FROM patients WHERE patient_id = 'SYN00000001'");
+		String name = jdbcTemplate.queryForObject("SELECT name FROM patients WHERE id = ?", String.class, id);
+		assertTrue(patientService.searchPatients(name, 50).stream().anyMatch(hit -> hit.getPatient().getId() == id));
+		assertEquals(3, patientService.getProgressNotesByPatientId(id).size());
+
+		LocalDateTime from = LocalDate.now().minusDays(30).atStartOfDay();
+		assertFalse(appointmentService.getAgenda(LocalDate.now().atStartOfDay(), LocalDate.now().plusDays(30).atStartOfDay(),
+				"Dr. James Smith").getAppointments().isEmpty());
+		assertTrue(appointmentService.getAgenda(from, from.plusDays(60), null).getAppointments().size() >= 150);
+	}
+
+	private long count(String sql) {
+		return jdbcTemplate.queryForObject(sql, Long.class);
+	}
+}
@@ -0,0 +1,67 @@
+package com.healthcare.patientcare.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExportControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void cohortIsExportedAsOneFullRecordPerLine() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/export/patients").param("ids", "2", "1"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/x-ndjson"))
+				.andReturn().getResponse().getContentAsString();
+
+		String[] lines = body.split("\n");
+		assertThat(lines).hasSize(2);
+		JsonNode first = objectMapper.readTree(lines[0]);
+		assertThat(first.get("patientId").asText()).isEqualTo("PAT001");
+		assertThat(first.get("carePlan").get("medications").asText()).contains("Lisinopril");
+		assertThat(first.get("progressNotes").size()).isGreaterThanOrEqualTo(2);
+		assertThat(first.get("appointments").isArray()).isTrue();
+		assertThat(objectMapper.readTree(lines[1]).get("patientId").asText()).isEqualTo("PAT002");
+	}
+
+	@Test
+	void gzipExportDecompressesToTheSameRecords() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/export/patients").param("ids", "1").param("gzip", "true"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		byte[] compressed = mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Content-Encoding", "gzip"))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			assertThat(body).endsWith("\n");
+			assertThat(objectMapper.readTree(body).get("name").asText()).isEqualTo("John Smith");
+		}
+	}
+}
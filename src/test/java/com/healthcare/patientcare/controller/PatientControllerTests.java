@@ -0,0 +1,121 @@
+package com.healthcare.patientcare.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PatientControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void listingIsStreamedAsJsonArray() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/patients"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()", greaterThanOrEqualTo(2)))
+				.andExpect(jsonPath("$[0].patientId").value("PAT001"));
+	}
+
+	@Test
+	void pagesFollowTheCursor() throws Exception {
+		mockMvc.perform(get("/api/patients/page").param("limit", "1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items", hasSize(1)))
+				.andExpect(jsonPath("$.items[0].id").value(1))
+				.andExpect(jsonPath("$.nextCursor").value("1"));
+
+		mockMvc.perform(get("/api/patients/page").param("limit", "1").param("cursor", "1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items[0].id").value(2));
+	}
+
+	@Test
+	void searchToleratesPartialAndMisspelledNames() throws Exception {
+		mockMvc.perform(get("/api/patients/search").param("q", "jon smth"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].patientId").value("PAT001"))
+				.andExpect(jsonPath("$[0].distance").value(2));
+	}
+
+	@Test
+	void clinicalSearchRanksNotesAndCarePlansWithHighlights() throws Exception {
+		mockMvc.perform(get("/api/patients/clinical-search").param("q", "HbA1c"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(2)))
+				.andExpect(jsonPath("$[*].type", containsInAnyOrder("progress_note", "care_plan")))
+				.andExpect(jsonPath("$[0].patientId").value(2))
+				.andExpect(jsonPath("$[0].highlights.*", hasItem(containsString("<b>HbA1c</b>"))));
+
+		mockMvc.perform(get("/api/patients/clinical-search").param("q", "HbA1c").param("type", "care_plan"))
+				.andExpect(jsonPath("$", hasSize(1)))
+				.andExpect(jsonPath("$[0].highlights.goals").value(containsString("<b>HbA1c</b>")));
+	}
+
+	@Test
+	void addedProgressNotesBecomeSearchable() throws Exception {
+		mockMvc.perform(post("/api/patients/2/progress-notes")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"note\":\"Retinal screening shows no retinopathy\",\"dateTime\":\"2024-03-01T10:00:00\"}"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/patients/clinical-search").param("q", "retinopathy"))
+				.andExpect(jsonPath("$", hasSize(1)))
+				.andExpect(jsonPath("$[0].type").value("progress_note"))
+				.andExpect(jsonPath("$[0].dateTime").value("2024-03-01T10:00:00"));
+	}
+
+	@Test
+	void invalidCursorIsRejected() throws Exception {
+		mockMvc.perform(get("/api/patients/page").param("cursor", "not-a-cursor"))
+				.andExpect(status().isBadRequest());
+	}
+
+
+	@Test
+	void retriedCreateReturnsTheFirstPatientAndStaleCarePlanUpdatesConflict() throws Exception {
+		String patient = "{\"name\":\"Quentin Versioned\",\"patientId\":\"PAT-VER-1\",\"dateOfBirth\":\"1970-01-01\"}";
+		String first = mockMvc.perform(post("/api/patients").header("Idempotency-Key", "create-ver-1")
+						.contentType(MediaType.APPLICATION_JSON).content(patient))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		// Without the key the retry would hit the unique patientId
+		mockMvc.perform(post("/api/patients").header("Idempotency-Key", "create-ver-1")
+						.contentType(MediaType.APPLICATION_JSON).content(patient))
+				.andExpect(status().isOk())
+				.andExpect(content().json(first));
+		mockMvc.perform(post("/api/patients").header("Idempotency-Key", "create-ver-1")
+						.contentType(MediaType.APPLICATION_JSON).content(patient.replace("Quentin", "Other")))
+				.andExpect(status().isUnprocessableEntity());
+
+		String id = first.replaceAll(".*\"id\":(\\d+).*", "$1");
+		mockMvc.perform(post("/api/patients/" + id + "/care-plan")
+						.contentType(MediaType.APPLICATION_JSON).content("{\"goals\":\"First draft\"}"))
+				.andExpect(jsonPath("$.version").value(0));
+		mockMvc.perform(post("/api/patients/" + id + "/care-plan")
+						.contentType(MediaType.APPLICATION_JSON).content("{\"goals\":\"Revised\",\"version\":0}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.version").value(1));
+		mockMvc.perform(post("/api/patients/" + id + "/care-plan")
+						.contentType(MediaType.APPLICATION_JSON).content("{\"goals\":\"Stale edit\",\"version\":0}"))
+				.andExpect(status().isConflict());
+		mockMvc.perform(get("/api/patients/" + id + "/care-plan"))
+				.andExpect(jsonPath("$.goals").value("Revised"));
+	}
+}
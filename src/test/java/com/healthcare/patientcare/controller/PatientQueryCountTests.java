@@ -0,0 +1,140 @@
+package com.healthcare.patientcare.controller;
+
+import com.healthcare.patientcare.entity.Appointment;
+import com.healthcare.patientcare.entity.Patient;
+import com.healthcare.patientcare.entity.ProgressNote;
+import com.healthcare.patientcare.repository.PatientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards against N+1 regressions: each endpoint must issue a fixed number of SQL
+ * statements no matter how many patients, notes or appointments exist.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class PatientQueryCountTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PatientRepository patientRepository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		if (patientRepository.findByPatientId("PAT-QC-0").isEmpty()) {
+			for (int i = 0; i < 10; i++) {
+				patientRepository.save(patientWithHistory("PAT-QC-" + i));
+			}
+		}
+		cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void patientPageIsOneStatement() throws Exception {
+		mockMvc.perform(get("/api/patients/page").param("limit", "50")).andExpect(status().isOk());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void patientStreamIsOneStatement() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/patients")).andExpect(request().asyncStarted()).andReturn();
+		mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void fullRecordExportIsFourStatements() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/export/patients")).andExpect(request().asyncStarted()).andReturn();
+		mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+		assertEquals(4, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void patientDetailIsTwoStatements() throws Exception {
+		Long id = patientRepository.findByPatientId("PAT-QC-3").orElseThrow().getId();
+		statistics.clear();
+
+		mockMvc.perform(get("/api/patients/{id}", id)).andExpect(status().isOk());
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void patientByNameIsTwoStatements() throws Exception {
+		if (patientRepository.findByPatientId("PAT-QC-5-TWIN").isEmpty()) {
+			Patient twin = patientWithHistory("PAT-QC-5-TWIN");
+			twin.setName("Query Count PAT-QC-5");
+			patientRepository.save(twin);
+		}
+		Long firstId = patientRepository.findByPatientId("PAT-QC-5").orElseThrow().getId();
+		statistics.clear();
+
+		mockMvc.perform(get("/api/patients/by-name/{name}", "Query Count PAT-QC-5"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(firstId));
+		assertEquals(2, statistics.getPrepareStatementCount());
+		// Only the first of the same-name patients is read, with its own notes
+		assertEquals(1, statistics.getEntityStatistics(Patient.class.getName()).getLoadCount());
+		assertEquals(3, statistics.getEntityStatistics(ProgressNote.class.getName()).getLoadCount());
+	}
+
+	@Test
+	void appointmentPageIsOneStatement() throws Exception {
+		mockMvc.perform(get("/api/appointments/page").param("limit", "50")).andExpect(status().isOk());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	private Patient patientWithHistory(String patientId) {
+		Patient patient = new Patient();
+		patient.setName("Query Count " + patientId);
+		patient.setPatientId(patientId);
+		patient.setDateOfBirth(LocalDate.of(1970, 1, 1));
+
+		for (int n = 0; n < 3; n++) {
+			ProgressNote note = new ProgressNote();
+			note.setNote("Note " + n);
+			note.setDateTime(LocalDateTime.now().minusDays(n));
+			note.setPatient(patient);
+			patient.getProgressNotes().add(note);
+
+			Appointment appointment = new Appointment();
+			appointment.setAppointmentDate(LocalDateTime.now().plusDays(n + 1));
+			appointment.setStatus("Scheduled");
+			appointment.setPatient(patient);
+			patient.getAppointments().add(appointment);
+		}
+		return patient;
+	}
+
+}
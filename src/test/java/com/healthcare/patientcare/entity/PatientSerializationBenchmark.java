@@ -0,0 +1,104 @@
+package com.healthcare.patientcare.entity;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.healthcare.patientcare.config.JacksonConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson encoding of a full Patient (care plan, progress notes, appointments)
+ * with the application's ObjectMapper, as tool results and REST responses
+ * encode it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatientSerializationBenchmark {
+
+    @Param({"10", "100"})
+    public int notes;
+
+    @Param({"5"})
+    public int appointments;
+
+    private ObjectWriter compactWriter;
+    private Patient patient;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        compactWriter = new JacksonConfig().objectMapper().writer().without(SerializationFeature.INDENT_OUTPUT);
+
+        LocalDateTime base = LocalDateTime.of(2030, 1, 7, 9, 0);
+        patient = new Patient();
+        patient.setId(1L);
+        patient.setName("Bench Patient");
+        patient.setPatientId("BENCH1");
+        patient.setDateOfBirth(LocalDate.of(1970, 5, 17));
+        patient.setGender("Female");
+        patient.setContactNumber("555-0100");
+        patient.setEmail("bench@example.com");
+        patient.setAddress("1 Benchmark Way, Springfield");
+
+        CarePlan carePlan = new CarePlan();
+        carePlan.setId(1L);
+        carePlan.setGoals("Reduce HbA1c below 7%; walk 30 minutes daily");
+        carePlan.setInterventions("Dietitian referral; home glucose monitoring");
+        carePlan.setMedications("Metformin 500 mg twice daily");
+        carePlan.setStartDate(LocalDate.of(2029, 11, 1));
+        carePlan.setReviewDate(LocalDate.of(2030, 2, 1));
+        carePlan.setStatus("Active");
+        carePlan.setVersion(0L);
+        carePlan.setPatient(patient);
+        patient.setCarePlan(carePlan);
+
+        for (int i = 0; i < notes; i++) {
+            ProgressNote note = new ProgressNote();
+            note.setId((long) i);
+            note.setNote("Patient reports improved energy levels. Blood glucose log reviewed, fasting values "
+                    + "between 110 and 140 mg/dL. Continue current regimen, recheck in two weeks. #" + i);
+            note.setDateTime(base.minusDays(i));
+            note.setProvider("Dr. Sarah Johnson");
+            note.setNoteType("Observation");
+            note.setPatient(patient);
+            patient.getProgressNotes().add(note);
+        }
+        for (int i = 0; i < appointments; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setId((long) i);
+            appointment.setAppointmentDate(base.plusWeeks(i));
+            appointment.setDurationMinutes(30);
+            appointment.setReason("Diabetes follow-up");
+            appointment.setStatus("Scheduled");
+            appointment.setProvider("Dr. Sarah Johnson");
+            appointment.setVersion(0L);
+            appointment.setPatient(patient);
+            patient.getAppointments().add(appointment);
+        }
+    }
+
+    @Benchmark
+    public byte[] patientToUtf8() throws Exception {
+        return compactWriter.writeValueAsBytes(patient);
+    }
+
+    @Benchmark
+    public String patientToString() throws Exception {
+        return compactWriter.writeValueAsString(patient);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PatientSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
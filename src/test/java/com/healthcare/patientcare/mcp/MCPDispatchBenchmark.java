@@ -0,0 +1,116 @@
+package com.healthcare.patientcare.mcp;
+
+import com.healthcare.patientcare.PatientCareApplication;
+import com.healthcare.patientcare.mcp.service.MCPToolService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Compares reflective Method.invoke dispatch against the pre-bound invokers
+ * MCPServer compiles at registration time, using the real MCPToolService tools.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MCPDispatchBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    private Map<String, Object> arguments;
+
+    private Object toolService;
+    private Method getPatientById;
+    private Method getAllPatients;
+
+    private MCPServer.ToolInvoker getPatientByIdInvoker;
+    private MCPServer.ToolInvoker getAllPatientsInvoker;
+    private Function<Object, Object> patientIdConverter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(PatientCareApplication.class)
+                .web(WebApplicationType.NONE)
+                // Command-line arguments, so they win over application.properties
+                .run("--spring.jpa.show-sql=false");
+
+        toolService = context.getBean(MCPToolService.class);
+        getPatientById = MCPToolService.class.getMethod("getPatientById", Long.class);
+        getAllPatients = MCPToolService.class.getMethod("getAllPatients", String.class, Integer.class);
+
+        getPatientByIdInvoker = MCPServer.compileInvoker(toolService, getPatientById);
+        getAllPatientsInvoker = MCPServer.compileInvoker(toolService, getAllPatients);
+        patientIdConverter = MCPServer.converterFor(Long.class);
+
+        // JSON numbers arrive from Jackson as Integer, so both paths must convert
+        arguments = Map.of("patient_id", 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object reflectiveGetPatientById() throws Exception {
+        Object[] args = {legacyConvert(arguments.get("patient_id"), Long.class)};
+        return getPatientById.invoke(toolService, args);
+    }
+
+    @Benchmark
+    public Object compiledGetPatientById() throws Exception {
+        Object[] args = {patientIdConverter.apply(arguments.get("patient_id"))};
+        return getPatientByIdInvoker.invoke(args);
+    }
+
+    @Benchmark
+    public Object reflectiveGetAllPatients() throws Exception {
+        return getAllPatients.invoke(toolService, new Object[2]);
+    }
+
+    @Benchmark
+    public Object compiledGetAllPatients() throws Exception {
+        return getAllPatientsInvoker.invoke(new Object[2]);
+    }
+
+    @Benchmark
+    public Object reflectiveConversion() {
+        return legacyConvert(arguments.get("patient_id"), Long.class);
+    }
+
+    @Benchmark
+    public Object compiledConversion() {
+        return patientIdConverter.apply(arguments.get("patient_id"));
+    }
+
+    // Mirrors the original per-call conversion chain in MCPServer
+    private static Object legacyConvert(Object value, Class<?> targetType) {
+        if (value == null) return null;
+        if (targetType.isInstance(value)) return value;
+
+        String strValue = value.toString();
+        if (targetType == Long.class || targetType == long.class) return Long.parseLong(strValue);
+        if (targetType == Integer.class || targetType == int.class) return Integer.parseInt(strValue);
+        if (targetType == Boolean.class || targetType == boolean.class) return Boolean.parseBoolean(strValue);
+        if (targetType == Double.class || targetType == double.class) return Double.parseDouble(strValue);
+        return strValue;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MCPDispatchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,99 @@
+package com.healthcare.patientcare.mcp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.patientcare.PatientCareApplication;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end MCP costs outside HTTP: a tools/call through MCPServer.invokeTool
+ * (conversion, invocation, encoding, metrics), building the tool registry and
+ * its tools/list schema, and a full JSON-RPC message from bytes to bytes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MCPServerBenchmark {
+
+    private static final byte[] TOOLS_CALL = ("{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"tools/call\","
+            + "\"params\":{\"name\":\"get_care_plan\",\"arguments\":{\"patient_id\":1}}}").getBytes();
+
+    private ConfigurableApplicationContext context;
+    private MCPServer mcpServer;
+    private MCPDispatcher dispatcher;
+    private ObjectMapper objectMapper;
+
+    private Map<String, Object> patientArguments;
+    private Map<String, Object> toolsList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Command-line arguments, so they win over application.properties
+        context = new SpringApplicationBuilder(PatientCareApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false",
+                        "--spring.datasource.url=jdbc:h2:mem:mcpbench",
+                        "--logging.level.root=WARN");
+        mcpServer = context.getBean(MCPServer.class);
+        dispatcher = context.getBean(MCPDispatcher.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        patientArguments = Map.of("patient_id", 1);
+        toolsList = Map.of("jsonrpc", "2.0", "id", 1, "method", "tools/list");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ToolResult invokeGetPatientById() {
+        return mcpServer.invokeTool("get_patient_by_id", patientArguments);
+    }
+
+    @Benchmark
+    public ToolResult invokeGetCarePlan() {
+        return mcpServer.invokeTool("get_care_plan", patientArguments);
+    }
+
+    @Benchmark
+    public ToolResult invokeWithMissingArgument() {
+        return mcpServer.invokeTool("get_care_plan", Map.of());
+    }
+
+    @Benchmark
+    public Object rebuildToolRegistry() {
+        mcpServer.initializeTools();
+        return mcpServer.getToolsListResult();
+    }
+
+    @Benchmark
+    public byte[] toolsListResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(dispatcher.dispatch(toolsList));
+    }
+
+    @Benchmark
+    public byte[] toolsCallRoundTrip() throws Exception {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> request = (Map<String, Object>) dispatcher.parse(TOOLS_CALL);
+        return objectMapper.writeValueAsBytes(dispatcher.dispatch(request));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MCPServerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,71 @@
+package com.healthcare.patientcare.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.patientcare.PatientCareApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Launches the application with --stdio as a client would, so the read loop, the
+ * framing, the stdout redirect and the exit on EOF are all exercised.
+ */
+class MCPStdioTransportTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void answersEachRequestWithOneLineAndExitsWhenStdinCloses(@TempDir Path dir) throws Exception {
+		Path stderr = dir.resolve("stderr.log");
+		Process process = new ProcessBuilder(
+				Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+				"-cp", System.getProperty("java.class.path"),
+				PatientCareApplication.class.getName(), "--stdio",
+				"--spring.datasource.url=jdbc:h2:mem:stdio")
+				.redirectError(stderr.toFile())
+				.start();
+
+		try (OutputStream stdin = process.getOutputStream()) {
+			stdin.write(("""
+					{"jsonrpc":"2.0","method":"initialize","id":1,"params":{"protocolVersion":"2024-11-05"}}
+					{"jsonrpc":"2.0","method":"notifications/initialized"}
+
+					{"jsonrpc":"2.0","method":"tools/list","id":2}
+					{"jsonrpc":"2.0","method":"tools/call","id":3,"params":{"name":"search_patients","arguments":{"query":"smith","limit":2}}}
+					""").getBytes(StandardCharsets.UTF_8));
+		}
+
+		List<String> lines;
+		try (BufferedReader stdout = new BufferedReader(
+				new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+			lines = stdout.lines().toList();
+		}
+		assertThat(process.waitFor(60, TimeUnit.SECONDS))
+				.as("process exits after stdin closes; stderr: %s", Files.readString(stderr))
+				.isTrue();
+		assertThat(process.exitValue()).isZero();
+
+		// One JSON-RPC response per request, nothing for the notification or the blank line
+		assertThat(lines).as("stdout").hasSize(3);
+		JsonNode initialize = objectMapper.readTree(lines.get(0));
+		JsonNode toolsList = objectMapper.readTree(lines.get(1));
+		JsonNode toolsCall = objectMapper.readTree(lines.get(2));
+		assertThat(initialize.get("id").asInt()).isEqualTo(1);
+		assertThat(initialize.at("/result/protocolVersion").isMissingNode()).isFalse();
+		assertThat(toolsList.get("id").asInt()).isEqualTo(2);
+		assertThat(toolsList.at("/result/tools").size()).isGreaterThan(0);
+		assertThat(toolsCall.get("id").asInt()).isEqualTo(3);
+		assertThat(toolsCall.at("/result/content/0/text").asText()).doesNotStartWith("{\"error\"");
+	}
+}
@@ -0,0 +1,216 @@
+package com.healthcare.patientcare.mcp;
+
+import com.healthcare.patientcare.PatientCareApplication;
+import com.healthcare.patientcare.mcp.session.MCPSessionRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load at 1000+ concurrent MCP sessions, run once on platform
+ * threads and once on virtual threads (needs Java 21; on older JVMs only the
+ * platform run happens). Each session initializes, then sends read-only tool
+ * calls back to back, every fourth one as a JSON-RPC batch that fans out.
+ * Statements are delayed by db.latency-ms while they hold a pooled connection,
+ * standing in for a networked database.
+ *
+ * <pre>
+ * java -cp ... -Dsessions=1000 -Dseconds=20 -Ddb.latency-ms=5 -Dpool.size=10 \
+ *     com.healthcare.patientcare.mcp.VirtualThreadLoadComparison
+ * </pre>
+ */
+public class VirtualThreadLoadComparison {
+
+    private static final int SESSIONS = Integer.getInteger("sessions", 1000);
+    private static final int SECONDS = Integer.getInteger("seconds", 20);
+    private static final int WARMUP_SECONDS = Integer.getInteger("warmup.seconds", 5);
+    private static final long DB_LATENCY_MS = Long.getLong("db.latency-ms", 5);
+    private static final int POOL_SIZE = Integer.getInteger("pool.size", 10);
+
+    private static final String[] CALLS = {
+            "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"tools/call\",\"params\":{\"name\":\"get_all_patients\",\"arguments\":{\"limit\":20}}}",
+            "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"tools/call\",\"params\":{\"name\":\"get_appointments\",\"arguments\":{\"patient_id\":1}}}",
+            "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"tools/call\",\"params\":{\"name\":\"get_patient_by_id\",\"arguments\":{\"patient_id\":2}}}",
+            "[{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"tools/call\",\"params\":{\"name\":\"get_all_patients\",\"arguments\":{\"limit\":5}}},"
+                    + "{\"jsonrpc\":\"2.0\",\"id\":2,\"method\":\"tools/call\",\"params\":{\"name\":\"get_appointments\",\"arguments\":{\"patient_id\":3}}}]"
+    };
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%d sessions, %d s (+%d s warm-up), %d ms per statement, pool of %d connections%n",
+                SESSIONS, SECONDS, WARMUP_SECONDS, DB_LATENCY_MS, POOL_SIZE);
+        System.out.println(Result.HEADER);
+        System.out.println(run(false));
+        if (Runtime.version().feature() >= 21) {
+            System.out.println(run(true));
+        } else {
+            System.out.println("virtual   skipped: needs Java 21");
+        }
+    }
+
+    private static Result run(boolean virtual) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PatientCareApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new DelayedStatements()))
+                // Command-line arguments, so they win over application.properties
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + (virtual ? "virtual" : "platform"),
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+                        "--spring.datasource.hikari.connection-timeout=30000",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.cache.caffeine.spec=maximumSize=0",
+                        "--mcp.client.demo.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--spring.threads.virtual.enabled=" + virtual);
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return drive(virtual ? "virtual" : "platform", URI.create("http://localhost:" + port + "/mcp"));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result drive(String mode, URI endpoint) throws Exception {
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(2);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+
+        long warmupEnds = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long deadline = warmupEnds + TimeUnit.SECONDS.toNanos(SECONDS);
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        CompletableFuture<?>[] sessions = new CompletableFuture<?>[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            int offset = i;
+            sessions[i] = client.sendAsync(post(endpoint, null,
+                            "{\"jsonrpc\":\"2.0\",\"id\":0,\"method\":\"initialize\",\"params\":{}}"),
+                            HttpResponse.BodyHandlers.discarding())
+                    .thenCompose(response -> loop(client, endpoint,
+                            response.headers().firstValue(MCPSessionRegistry.SESSION_HEADER).orElse(null),
+                            offset, warmupEnds, deadline, latencies, errors));
+        }
+        CompletableFuture.allOf(sessions).get(WARMUP_SECONDS + SECONDS + 120, TimeUnit.SECONDS);
+        clientExecutor.shutdown();
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(mode, sorted.length / (double) SECONDS, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                errors.get(), threads.getPeakThreadCount());
+    }
+
+    // Sends the session's next call as soon as the previous one answers, until the deadline
+    private static CompletableFuture<Void> loop(HttpClient client, URI endpoint, String sessionId, int call,
+                                                long warmupEnds, long deadline,
+                                                ConcurrentLinkedQueue<Long> latencies, AtomicLong errors) {
+        long started = System.nanoTime();
+        if (started >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return client.sendAsync(post(endpoint, sessionId, CALLS[call % CALLS.length]), HttpResponse.BodyHandlers.ofString())
+                .handle((response, failure) -> {
+                    if (failure != null || response.statusCode() != 200 || response.body().contains("\"isError\":true")) {
+                        errors.incrementAndGet();
+                    } else if (started >= warmupEnds) {
+                        latencies.add(System.nanoTime() - started);
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop(client, endpoint, sessionId, call + 1, warmupEnds, deadline, latencies, errors));
+    }
+
+    private static HttpRequest post(URI endpoint, String sessionId, String body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (sessionId != null) {
+            request.header(MCPSessionRegistry.SESSION_HEADER, sessionId);
+        }
+        return request.build();
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))] / 1_000_000.0;
+    }
+
+    private record Result(String mode, double throughput, double p50Millis, double p99Millis, long errors, int peakThreads) {
+        static final String HEADER = "mode      req/s     p50 ms    p99 ms    errors  peak platform threads";
+
+        @Override
+        public String toString() {
+            return String.format("%-9s %-9.0f %-9.1f %-9.1f %-7d %d", mode, throughput, p50Millis, p99Millis, errors, peakThreads);
+        }
+    }
+
+    /** Wraps the DataSource so every statement waits db.latency-ms while holding its connection. */
+    private static class DelayedStatements implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || DB_LATENCY_MS <= 0) {
+                return bean;
+            }
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = invoke(method, target, args);
+                if (result instanceof Connection connection) {
+                    return proxy(Connection.class, connection, (c, m, a) -> {
+                        Object statement = invoke(m, c, a);
+                        return statement instanceof PreparedStatement prepared ? delayed(prepared) : statement;
+                    });
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement delayed(PreparedStatement statement) {
+            return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+                if (method.getName().startsWith("execute")) {
+                    Thread.sleep(DB_LATENCY_MS);
+                }
+                return invoke(method, target, args);
+            });
+        }
+
+        private interface Handler<T> {
+            Object handle(T target, Method method, Object[] args) throws Throwable;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> handler.handle(target, method, args));
+        }
+
+        private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
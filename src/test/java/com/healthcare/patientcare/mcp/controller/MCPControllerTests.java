@@ -0,0 +1,196 @@
+package com.healthcare.patientcare.mcp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MCPControllerTests {
+
+	private static final String TOOLS_LIST = "{\"jsonrpc\":\"2.0\",\"method\":\"tools/list\",\"id\":7}";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void toolsListReturnsPrecomputedResultWithEtag() throws Exception {
+		mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(TOOLS_LIST))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andExpect(jsonPath("$.id").value(7))
+				.andExpect(jsonPath("$.result.tools", hasSize(15)))
+				.andExpect(jsonPath("$.result.tools[0].name").value("add_progress_note"));
+	}
+
+	@Test
+	void toolsListHonoursIfNoneMatch() throws Exception {
+		String etag = mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(TOOLS_LIST))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(TOOLS_LIST)
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag));
+	}
+
+	@Test
+	void toolsListMatchesWeakListedAndWildcardTags() throws Exception {
+		String etag = mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(TOOLS_LIST))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		for (String ifNoneMatch : List.of("W/" + etag, "\"stale\", " + etag, "\"stale\", W/" + etag, "*")) {
+			mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(TOOLS_LIST)
+							.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+					.andExpect(status().isNotModified());
+		}
+		mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(TOOLS_LIST)
+						.header(HttpHeaders.IF_NONE_MATCH, "\"stale\", W/\"other\""))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void batchPreservesOrderAndIds() throws Exception {
+		String batch = "["
+				+ "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":\"a\",\"params\":{\"name\":\"get_patient_by_id\",\"arguments\":{\"patient_id\":1}}},"
+				+ "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":\"b\",\"params\":{\"name\":\"get_care_plan\",\"arguments\":{\"patient_id\":1}}},"
+				+ "{\"jsonrpc\":\"2.0\",\"method\":\"notifications/initialized\"},"
+				+ "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":\"c\",\"params\":{\"name\":\"get_appointments\",\"arguments\":{\"patient_id\":1}}}"
+				+ "]";
+
+		mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(batch))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(3)))
+				.andExpect(jsonPath("$[0].id").value("a"))
+				.andExpect(jsonPath("$[0].result.content[0].text", containsString("John Smith")))
+				.andExpect(jsonPath("$[1].id").value("b"))
+				.andExpect(jsonPath("$[2].id").value("c"));
+	}
+
+	@Test
+	void emptyBatchIsInvalidRequest() throws Exception {
+		mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content("[]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.error.code").value(-32600));
+	}
+
+	@Test
+	void toolResultIsCompactJsonText() throws Exception {
+		String call = "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":1,"
+				+ "\"params\":{\"name\":\"get_care_plan\",\"arguments\":{\"patient_id\":1}}}";
+
+		mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(call))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.result.content[0].type").value("text"))
+				.andExpect(jsonPath("$.result.content[0].text", startsWith("{\"id\":1,\"goals\":")));
+	}
+
+
+	@Test
+	void retriedWritesWithTheSameIdempotencyKeyRunOnce() throws Exception {
+		String call = "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":1,\"params\":{\"name\":\"create_patient\","
+				+ "\"arguments\":{\"name\":\"Ida Retry\",\"patient_id\":\"PAT-IDEM-1\",\"date_of_birth\":\"1990-02-03\","
+				+ "\"gender\":\"Female\",\"contact_number\":\"555-0199\",\"email\":\"ida@example.com\",\"address\":\"1 Main St\","
+				+ "\"idempotency_key\":\"mcp-idem-1\"}}}";
+
+		String first = mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(call))
+				.andExpect(jsonPath("$.result.content[0].text", containsString("PAT-IDEM-1")))
+				.andReturn().getResponse().getContentAsString();
+		mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(call))
+				.andExpect(content().json(first));
+		mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(call.replace("1 Main St", "2 Main St")))
+				.andExpect(jsonPath("$.result.content[0].text", containsString("already used")));
+	}
+
+	@Test
+	void reusedKeyErrorIsValidJsonWhateverTheKey() throws Exception {
+		String call = "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":1,\"params\":{\"name\":\"add_progress_note\","
+				+ "\"arguments\":{\"patient_id\":1,\"note\":\"%s\",\"provider\":\"Dr. Key\",\"note_type\":\"Assessment\","
+				+ "\"idempotency_key\":\"mcp\\\"idem\\\\2\"}}}";
+		mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(call.formatted("First")));
+
+		String text = objectMapper.readTree(mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON)
+						.content(call.formatted("Second")))
+				.andReturn().getResponse().getContentAsString()).at("/result/content/0/text").asText();
+		assertThat(objectMapper.readTree(text).get("error").asText()).contains("mcp\"idem\\2", "already used");
+	}
+
+	@Test
+	void toolErrorsAreValidJsonWhateverTheInput() throws Exception {
+		String byName = "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":1,\"params\":{\"name\":\"get_patient_by_name\","
+				+ "\"arguments\":{\"name\":\"No \\\"Such\\\" \\\\Patient\"}}}";
+		assertThat(toolError(byName)).isEqualTo("Patient not found with name: No \"Such\" \\Patient");
+
+		String bulk = "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":2,\"params\":{\"name\":\"bulk_import\","
+				+ "\"arguments\":{\"kind\":\"patients\",\"format\":\"x\\\"ml\\\\\",\"data\":\"\"}}}";
+		assertThat(toolError(bulk)).startsWith("Unknown import format: x\"ml\\");
+	}
+
+	@Test
+	void outOfRangeIntegersAreInvalidArguments() throws Exception {
+		String search = "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":1,\"params\":{\"name\":\"search_patients\","
+				+ "\"arguments\":{\"query\":\"smith\",\"limit\":3000000000}}}";
+		mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(search))
+				.andExpect(jsonPath("$.result.content[0].text", startsWith("{\"error\"")));
+
+		String notes = "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":2,\"params\":{\"name\":\"get_progress_notes\","
+				+ "\"arguments\":{\"patient_id\":18446744073709551617}}}";
+		mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(notes))
+				.andExpect(jsonPath("$.result.content[0].text", startsWith("{\"error\"")));
+	}
+
+	// The text of a tool call's result, which must parse as an {"error": ...} object
+	private String toolError(String call) throws Exception {
+		String text = objectMapper.readTree(mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(call))
+				.andReturn().getResponse().getContentAsString()).at("/result/content/0/text").asText();
+		return objectMapper.readTree(text).get("error").asText();
+	}
+
+	@Test
+	void toolsScanTimeIsAGauge() throws Exception {
+		mockMvc.perform(get("/actuator/metrics/mcp.tools.scan.time"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.baseUnit").value("seconds"))
+				.andExpect(jsonPath("$.measurements[0].value", greaterThan(0.0)));
+	}
+
+	@Test
+	void metricsMethodReportsCallsAndErrorsPerTool() throws Exception {
+		String call = "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":1,\"params\":{\"name\":\"get_progress_notes\",\"arguments\":%s}}";
+		mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(call.formatted("{\"patient_id\":1}")));
+		mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(call.formatted("{}")));
+		mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(call.formatted("{\"patient_id\":\"one\"}")));
+
+		String notes = "$.result.tools[?(@.tool == 'get_progress_notes')]";
+		mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"jsonrpc\":\"2.0\",\"method\":\"metrics\",\"id\":9}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.result.tools", hasSize(15)))
+				.andExpect(jsonPath(notes + ".calls", hasItem(greaterThanOrEqualTo(3))))
+				.andExpect(jsonPath(notes + ".errors", hasItem(greaterThanOrEqualTo(2))))
+				.andExpect(jsonPath(notes + ".errorsByType.missing_parameter", hasItem(greaterThanOrEqualTo(1))))
+				.andExpect(jsonPath(notes + ".errorsByType.invalid_argument", hasItem(greaterThanOrEqualTo(1))))
+				.andExpect(jsonPath(notes + ".maxResultBytes", hasItem(greaterThan(0.0))));
+	}
+}
@@ -0,0 +1,121 @@
+package com.healthcare.patientcare.mcp.controller;
+
+import com.healthcare.patientcare.mcp.session.MCPSessionRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MCPStreamControllerTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private MCPSessionRegistry sessionRegistry;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void pipelinedCallsAreAnsweredOnTheStream() throws Exception {
+		BlockingQueue<String> dataLines = new LinkedBlockingQueue<>();
+		client.sendAsync(HttpRequest.newBuilder(URI.create(base() + "/mcp/sse"))
+						.header("Accept", "text/event-stream").GET().build(),
+				HttpResponse.BodyHandlers.ofLines())
+				.thenAccept(response -> response.body()
+						.filter(line -> line.startsWith("data:"))
+						.forEach(line -> dataLines.add(line.substring(5))));
+
+		String endpoint = dataLines.poll(10, TimeUnit.SECONDS);
+		assertNotNull(endpoint);
+		assertTrue(endpoint.startsWith("/mcp/messages?sessionId="));
+
+		HttpResponse<String> accepted = post(endpoint, "["
+				+ "{\"jsonrpc\":\"2.0\",\"method\":\"initialize\",\"id\":1,\"params\":{\"protocolVersion\":\"2024-11-05\"}},"
+				+ "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":2,\"params\":{\"name\":\"get_patient_by_id\",\"arguments\":{\"patient_id\":1}}},"
+				+ "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":3,\"params\":{\"name\":\"get_care_plan\",\"arguments\":{\"patient_id\":2}}}"
+				+ "]");
+		assertEquals(202, accepted.statusCode());
+
+		Set<String> ids = new HashSet<>();
+		for (int i = 0; i < 3; i++) {
+			String message = dataLines.poll(10, TimeUnit.SECONDS);
+			assertNotNull(message, "missing streamed response " + i);
+			assertFalse(message.contains("\"error\""), message);
+			ids.add(message.replaceAll(".*\"id\":(\\d+).*", "$1"));
+		}
+		assertEquals(Set.of("1", "2", "3"), ids);
+	}
+
+	@Test
+	void reopenedStreamOutlivesTheOneItReplaced() throws Exception {
+		BlockingQueue<String> first = new LinkedBlockingQueue<>();
+		CompletableFuture<Void> firstEnded = openStream(null, first);
+		String endpoint = first.poll(10, TimeUnit.SECONDS);
+		assertNotNull(endpoint);
+		String sessionId = endpoint.substring(endpoint.indexOf('=') + 1);
+		SseEmitter replaced = sessionRegistry.find(sessionId).orElseThrow().getEmitter();
+
+		BlockingQueue<String> second = new LinkedBlockingQueue<>();
+		openStream(sessionId, second);
+		assertEquals(endpoint, second.poll(10, TimeUnit.SECONDS));
+
+		replaced.complete();
+		firstEnded.get(10, TimeUnit.SECONDS);
+		// Let the completion callback of the first stream run
+		Thread.sleep(200);
+
+		HttpResponse<String> accepted = post(endpoint, "{\"jsonrpc\":\"2.0\",\"method\":\"tools/list\",\"id\":7}");
+		assertEquals(202, accepted.statusCode());
+		String message = second.poll(10, TimeUnit.SECONDS);
+		assertNotNull(message);
+		assertTrue(message.contains("\"id\":7"), message);
+		assertTrue(first.isEmpty());
+	}
+
+	@Test
+	void unknownSessionIsRejected() throws Exception {
+		HttpResponse<String> response = post("/mcp/messages?sessionId=missing",
+				"{\"jsonrpc\":\"2.0\",\"method\":\"tools/list\",\"id\":1}");
+		assertEquals(404, response.statusCode());
+	}
+
+	private CompletableFuture<Void> openStream(String sessionId, BlockingQueue<String> dataLines) {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base() + "/mcp/sse"))
+				.header("Accept", "text/event-stream");
+		if (sessionId != null) {
+			request.header(MCPSessionRegistry.SESSION_HEADER, sessionId);
+		}
+		return client.sendAsync(request.GET().build(), HttpResponse.BodyHandlers.ofLines())
+				.thenAccept(response -> response.body()
+						.filter(line -> line.startsWith("data:"))
+						.forEach(line -> dataLines.add(line.substring(5))));
+	}
+
+	private HttpResponse<String> post(String path, String body) throws Exception {
+		return client.send(HttpRequest.newBuilder(URI.create(base() + path))
+						.header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+				HttpResponse.BodyHandlers.ofString());
+	}
+
+	private String base() {
+		return "http://localhost:" + port;
+	}
+
+}
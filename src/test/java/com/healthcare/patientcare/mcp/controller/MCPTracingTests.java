@@ -0,0 +1,86 @@
+package com.healthcare.patientcare.mcp.controller;
+
+import com.healthcare.patientcare.config.RecentSpans;
+import com.healthcare.patientcare.dto.response.SpanDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:tracing")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MCPTracingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private RecentSpans recentSpans;
+
+	@Test
+	void toolCallSpansContinueTheIncomingTrace() throws Exception {
+		String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+		String call = "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":\"req-42\","
+				+ "\"params\":{\"name\":\"get_appointments\",\"arguments\":{\"patient_id\":1}}}";
+		mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(call)
+						.header("traceparent", "00-" + traceId + "-00f067aa0ba902b7-01"))
+				.andExpect(status().isOk());
+
+		List<SpanDTO> spans = spans(traceId);
+		SpanDTO http = named(spans, "http post /mcp");
+		assertThat(http.getParentSpanId()).isEqualTo("00f067aa0ba902b7");
+		assertThat(named(spans, "mcp.parse").getParentSpanId()).isEqualTo(http.getSpanId());
+
+		SpanDTO dispatch = named(spans, "tools/call get_appointments");
+		assertThat(dispatch.getParentSpanId()).isEqualTo(http.getSpanId());
+		assertThat(dispatch.getAttributes())
+				.containsEntry("rpc.jsonrpc.request_id", "req-42")
+				.containsEntry("mcp.tool", "get_appointments");
+
+		SpanDTO transaction = named(spans, "transaction");
+		assertThat(transaction.getParentSpanId()).isEqualTo(dispatch.getSpanId());
+		assertThat(transaction.getAttributes())
+				.containsEntry("tx.name", "com.healthcare.patientcare.service.AppointmentService.getAppointmentsByPatientId")
+				.containsEntry("tx.outcome", "commit");
+		assertThat(named(spans, "query").getAttributes().get("jdbc.query[0]")).contains("from appointments");
+		assertThat(named(spans, "mcp.serialize").getParentSpanId()).isEqualTo(dispatch.getSpanId());
+	}
+
+	@Test
+	void fannedOutBatchCallsStayInTheRequestTrace() throws Exception {
+		String traceId = "0af7651916cd43dd8448eb211c80319c";
+		String batch = "["
+				+ "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":1,\"params\":{\"name\":\"get_appointments\",\"arguments\":{\"patient_id\":1}}},"
+				+ "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":2,\"params\":{\"name\":\"get_care_plan\",\"arguments\":{\"patient_id\":1}}}"
+				+ "]";
+		mockMvc.perform(post("/mcp").contentType(MediaType.APPLICATION_JSON).content(batch)
+						.header("traceparent", "00-" + traceId + "-b7ad6b7169203331-01"))
+				.andExpect(status().isOk());
+
+		List<SpanDTO> spans = spans(traceId);
+		String http = named(spans, "http post /mcp").getSpanId();
+		assertThat(named(spans, "tools/call get_appointments").getParentSpanId()).isEqualTo(http);
+		assertThat(named(spans, "tools/call get_care_plan").getParentSpanId()).isEqualTo(http);
+	}
+
+	private List<SpanDTO> spans(String traceId) {
+		return recentSpans.trace(traceId).stream().map(SpanDTO::from).toList();
+	}
+
+	private static SpanDTO named(List<SpanDTO> spans, String name) {
+		return spans.stream()
+				.filter(span -> span.getName().equals(name))
+				.findFirst()
+				.orElseThrow(() -> new AssertionError("No " + name + " span in " + spans));
+	}
+}
@@ -0,0 +1,147 @@
+package com.healthcare.patientcare.repository;
+
+import com.healthcare.patientcare.PatientCareApplication;
+import com.healthcare.patientcare.entity.Patient;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup latency on a seeded dataset with the declared indexes in place
+ * (indexed = true) and with them dropped (indexed = false, the old schema).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndexLookupBenchmark {
+
+    private static final String[] PROVIDERS = {
+            "Dr. Sarah Johnson", "Dr. Michael Chen", "Dr. Priya Patel", "Dr. Omar Haddad", "Dr. Lena Fischer"
+    };
+
+    private static final String[] INDEXES = {
+            "idx_patients_name_key",
+            "idx_appointments_date",
+            "idx_appointments_provider_date",
+            "idx_appointments_patient_date",
+            "idx_progress_notes_patient_date"
+    };
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    @Param({"100000"})
+    public int patients;
+
+    private ConfigurableApplicationContext context;
+    private PatientRepository patientRepository;
+    private AppointmentRepository appointmentRepository;
+    private ProgressNoteRepository progressNoteRepository;
+
+    private LocalDateTime base;
+    private long lookupPatientId;
+    private String lookupNameKey;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(PatientCareApplication.class)
+                .web(WebApplicationType.NONE)
+                // Command-line arguments, so they win over application.properties
+                .run("--spring.jpa.show-sql=false", "--spring.datasource.url=jdbc:h2:mem:indexbench");
+        patientRepository = context.getBean(PatientRepository.class);
+        appointmentRepository = context.getBean(AppointmentRepository.class);
+        progressNoteRepository = context.getBean(ProgressNoteRepository.class);
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        base = LocalDateTime.now().withNano(0);
+        seed(jdbc);
+
+        if (!indexed) {
+            for (String index : INDEXES) {
+                jdbc.execute("DROP INDEX IF EXISTS " + index);
+            }
+        }
+        jdbc.execute("ANALYZE");
+
+        Long maxId = jdbc.queryForObject("SELECT MAX(id) FROM patients", Long.class);
+        lookupPatientId = maxId - patients / 2;
+        lookupNameKey = Patient.toNameKey("Bench Patient " + (patients / 2));
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        List<Object[]> patientRows = new ArrayList<>(patients);
+        for (int i = 0; i < patients; i++) {
+            String name = "Bench Patient " + i;
+            patientRows.add(new Object[]{name, Patient.toNameKey(name), "BENCH" + i});
+        }
+        jdbc.batchUpdate("INSERT INTO patients (id, name, name_key, patient_id) VALUES (NEXT VALUE FOR patients_seq, ?, ?, ?)", patientRows);
+
+        List<Long> ids = jdbc.queryForList("SELECT id FROM patients WHERE patient_id LIKE 'BENCH%'", Long.class);
+        List<Object[]> appointmentRows = new ArrayList<>(ids.size() * 2);
+        List<Object[]> noteRows = new ArrayList<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            for (int n = 0; n < 2; n++) {
+                Timestamp slot = Timestamp.valueOf(base.plusMinutes(15L * (i * 2 + n)));
+                appointmentRows.add(new Object[]{ids.get(i), slot, PROVIDERS[(i + n) % PROVIDERS.length], "Scheduled"});
+                noteRows.add(new Object[]{ids.get(i), slot, "Benchmark note " + n});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO appointments (id, patient_id, appointment_date, provider, status) "
+                        + "VALUES (NEXT VALUE FOR appointments_seq, ?, ?, ?, ?)",
+                appointmentRows);
+        jdbc.batchUpdate("INSERT INTO progress_notes (id, patient_id, date_time, note) "
+                + "VALUES (NEXT VALUE FOR progress_notes_seq, ?, ?, ?)", noteRows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object patientByName() {
+        return patientRepository.findFirstWithDetailsByNameKey(lookupNameKey);
+    }
+
+    @Benchmark
+    public Object appointmentsByPatient() {
+        return appointmentRepository.findByPatientId(lookupPatientId);
+    }
+
+    @Benchmark
+    public Object appointmentsInDateRange() {
+        LocalDateTime start = base.plusDays(30);
+        return appointmentRepository.findByAppointmentDateBetween(start, start.plusHours(8));
+    }
+
+    @Benchmark
+    public Object providerAgenda() {
+        LocalDateTime start = base.plusDays(30);
+        return appointmentRepository.findByProviderAndAppointmentDateBetween(PROVIDERS[1], start, start.plusDays(1));
+    }
+
+    @Benchmark
+    public Object progressNotesByPatient() {
+        return progressNoteRepository.findByPatientId(lookupPatientId);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(IndexLookupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,130 @@
+package com.healthcare.patientcare.service;
+
+import com.healthcare.patientcare.dto.response.AgendaChangesResponseDTO;
+import com.healthcare.patientcare.dto.response.AppointmentEntryDTO;
+import com.healthcare.patientcare.entity.Appointment;
+import com.healthcare.patientcare.entity.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppointmentAgendaTests {
+
+	private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+	private AppointmentAgenda agenda;
+
+	@BeforeEach
+	void setUp() {
+		agenda = new AppointmentAgenda();
+		ReflectionTestUtils.setField(agenda, "changeLogSize", 3);
+		agenda.reset(DAY);
+		agenda.load(entry(1L, "Dr. A", 0, 10));
+		agenda.load(entry(2L, "Dr. B", 0, 9));
+		agenda.load(entry(3L, "Dr. A", 1, 9));
+	}
+
+	@Test
+	void rangesReadOnlyTheBucketsTheyCover() {
+		assertThat(ids(agenda.range(at(0, 0), at(0, 23), null).getAppointments())).containsExactly(2L, 1L);
+		assertThat(ids(agenda.range(at(0, 0), at(2, 0), "Dr. A").getAppointments())).containsExactly(1L, 3L);
+		assertThat(ids(agenda.range(at(0, 9, 30), at(1, 9), null).getAppointments())).containsExactly(1L, 3L);
+		assertThat(agenda.covers(at(0, 0))).isTrue();
+		assertThat(agenda.covers(at(-1, 23))).isFalse();
+	}
+
+	@Test
+	void reversedRangesAreEmpty() {
+		assertThat(agenda.range(at(1, 9), at(0, 9), null).getAppointments()).isEmpty();
+		assertThat(agenda.range(at(0, 11), at(0, 9), "Dr. A").getAppointments()).isEmpty();
+		assertThat(agenda.range(at(0, 11), at(0, 9), null).getAppointments()).isEmpty();
+	}
+
+	@Test
+	void changesCollapseToTheLatestStateAndReportMovesOutOfTheWindow() {
+		long since = agenda.version();
+		agenda.removeAfterCommit(99L);
+		agenda.putAfterCommit(toAppointment(entry(4L, "Dr. A", 0, 11)));
+		agenda.putAfterCommit(toAppointment(entry(4L, "Dr. A", 0, 12)));
+		agenda.putAfterCommit(toAppointment(entry(1L, "Dr. A", 5, 10)));
+
+		AgendaChangesResponseDTO changes = agenda.changesSince(since, at(0, 0), at(0, 23), "Dr. A");
+
+		assertThat(changes.isReset()).isFalse();
+		assertThat(changes.getVersion()).isEqualTo(since + 3);
+		assertThat(changes.getUpdated()).singleElement()
+				.satisfies(entry -> assertThat(entry.getAppointmentDate()).isEqualTo(at(0, 12)));
+		assertThat(changes.getRemoved()).containsExactly(1L);
+		assertThat(ids(agenda.range(at(0, 0), at(0, 23), "Dr. A").getAppointments())).containsExactly(4L);
+		assertThat(agenda.changesSince(changes.getVersion(), at(0, 0), at(0, 23), null).getUpdated()).isEmpty();
+	}
+
+	@Test
+	void versionsOlderThanTheLogAskForAReset() {
+		long since = agenda.version();
+		for (long id = 10; id < 14; id++) {
+			agenda.putAfterCommit(toAppointment(entry(id, "Dr. C", 0, 8)));
+		}
+
+		assertThat(agenda.changesSince(since, at(0, 0), at(0, 23), null).isReset()).isTrue();
+		assertThat(agenda.changesSince(since + 1, at(0, 0), at(0, 23), null).getUpdated()).hasSize(3);
+		assertThat(agenda.changesSince(agenda.version() + 1, at(0, 0), at(0, 23), null).isReset()).isTrue();
+	}
+
+	@Test
+	void trimmingDropsPastDaysAndStopsCoveringThem() {
+		agenda.trimBefore(DAY.plusDays(1));
+
+		assertThat(agenda.covers(at(0, 23))).isFalse();
+		assertThat(agenda.covers(at(1, 0))).isTrue();
+		assertThat(ids(agenda.range(at(0, 0), at(2, 0), null).getAppointments())).containsExactly(3L);
+		assertThat(byId()).containsOnlyKeys(3L);
+		assertThat((Map<?, ?>) ReflectionTestUtils.getField(agenda, "days")).hasSize(1);
+
+		// A later change to an uncovered day is logged for pollers but not kept
+		long since = agenda.version();
+		agenda.putAfterCommit(toAppointment(entry(5L, "Dr. A", 0, 15)));
+		assertThat(agenda.version()).isEqualTo(since + 1);
+		assertThat(byId()).containsOnlyKeys(3L);
+		assertThat((Map<?, ?>) ReflectionTestUtils.getField(agenda, "days")).hasSize(1);
+
+		agenda.trimBefore(DAY);
+		assertThat(agenda.covers(at(0, 23))).isFalse();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<Long, ?> byId() {
+		return (Map<Long, ?>) ReflectionTestUtils.getField(agenda, "byId");
+	}
+
+	private static AppointmentEntryDTO entry(Long id, String provider, int day, int hour) {
+		return new AppointmentEntryDTO(id, 1L, at(day, hour), 30, "Check-up", "Scheduled", provider, 0L);
+	}
+
+	private static Appointment toAppointment(AppointmentEntryDTO entry) {
+		Patient patient = new Patient();
+		patient.setId(entry.getPatientId());
+		return new Appointment(entry.getId(), entry.getAppointmentDate(),
+				entry.getDurationMinutes(), entry.getReason(), entry.getStatus(), entry.getProvider(), entry.getVersion(),
+				patient);
+	}
+
+	private static LocalDateTime at(int day, int hour) {
+		return DAY.plusDays(day).atTime(hour, 0);
+	}
+
+	private static LocalDateTime at(int day, int hour, int minute) {
+		return DAY.plusDays(day).atTime(hour, minute);
+	}
+
+	private static List<Long> ids(List<AppointmentEntryDTO> entries) {
+		return entries.stream().map(AppointmentEntryDTO::getId).toList();
+	}
+}
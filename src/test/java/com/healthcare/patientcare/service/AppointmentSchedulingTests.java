@@ -0,0 +1,104 @@
+package com.healthcare.patientcare.service;
+
+import com.healthcare.patientcare.dto.response.AgendaChangesResponseDTO;
+import com.healthcare.patientcare.dto.response.AgendaResponseDTO;
+import com.healthcare.patientcare.dto.response.AppointmentEntryDTO;
+import com.healthcare.patientcare.entity.Appointment;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class AppointmentSchedulingTests {
+
+	private static final LocalDateTime NINE = LocalDateTime.of(2031, 6, 2, 9, 0);
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Test
+	void concurrentBookingsOfOneSlotCommitExactlyOne() throws Exception {
+		int threads = 12;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger conflicts = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					try {
+						appointmentService.createAppointment(1L, appointment("Dr. Race", NINE, 30));
+					} catch (SchedulingConflictException e) {
+						conflicts.incrementAndGet();
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(conflicts.get()).isEqualTo(threads - 1);
+		assertThat(appointmentService.getAppointmentsBetween(NINE, NINE.plusMinutes(1)))
+				.filteredOn(a -> "Dr. Race".equals(a.getProvider()))
+				.hasSize(1);
+	}
+
+	@Test
+	void cancellingFreesTheSlotAndRejectedBookingsHoldNothing() {
+		LocalDateTime ten = NINE.plusHours(1);
+		Appointment first = appointmentService.createAppointment(1L, appointment("Dr. Cancel", ten, 60));
+		assertThatThrownBy(() -> appointmentService.createAppointment(2L, appointment("Dr. Cancel", ten.plusMinutes(30), 60)))
+				.isInstanceOf(SchedulingConflictException.class);
+		// The rejected 10:30-11:30 booking was rolled back, so 11:00 is still free
+		appointmentService.createAppointment(2L, appointment("Dr. Cancel", ten.plusHours(1), 30));
+
+		assertThat(appointmentService.findAvailableSlots("Dr. Cancel", ten, ten.plusHours(1), 30, 5)).isEmpty();
+		appointmentService.cancelAppointment(first.getId());
+		assertThat(appointmentService.findAvailableSlots("Dr. Cancel", ten, ten.plusHours(1), 30, 5)).hasSize(1);
+		appointmentService.createAppointment(2L, appointment("Dr. Cancel", ten, 60));
+	}
+
+	@Test
+	void agendaPollersSeeOnlyCommittedChanges() {
+		LocalDateTime day = NINE.plusDays(1).withHour(0);
+		AgendaResponseDTO before = appointmentService.getAgenda(day, day.plusDays(1), "Dr. Agenda");
+		assertThat(before.getAppointments()).isEmpty();
+
+		Appointment created = appointmentService.createAppointment(1L, appointment("Dr. Agenda", day.withHour(14), 30));
+		assertThatThrownBy(() -> appointmentService.createAppointment(2L, appointment("Dr. Agenda", day.withHour(14), 30)))
+				.isInstanceOf(SchedulingConflictException.class);
+
+		AgendaChangesResponseDTO changes = appointmentService.getAgendaChanges(before.getVersion(), day, day.plusDays(1), "Dr. Agenda");
+		assertThat(changes.getUpdated()).extracting(AppointmentEntryDTO::getId).containsExactly(created.getId());
+		assertThat(changes.getUpdated().get(0).getPatientId()).isEqualTo(1L);
+
+		appointmentService.deleteAppointment(created.getId());
+		AgendaChangesResponseDTO afterDelete = appointmentService.getAgendaChanges(changes.getVersion(), day, day.plusDays(1), null);
+		assertThat(afterDelete.getRemoved()).containsExactly(created.getId());
+		assertThat(appointmentService.getAgenda(day, day.plusDays(1), "Dr. Agenda").getAppointments()).isEmpty();
+	}
+
+	private static Appointment appointment(String provider, LocalDateTime date, int duration) {
+		Appointment appointment = new Appointment();
+		appointment.setProvider(provider);
+		appointment.setAppointmentDate(date);
+		appointment.setDurationMinutes(duration);
+		appointment.setReason("Scheduling check");
+		return appointment;
+	}
+}
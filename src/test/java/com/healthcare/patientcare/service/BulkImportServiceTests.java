@@ -0,0 +1,81 @@
+package com.healthcare.patientcare.service;
+
+import com.healthcare.patientcare.dto.response.ImportReportResponseDTO;
+import com.healthcare.patientcare.dto.response.ImportReportResponseDTO.BatchProgress;
+import com.healthcare.patientcare.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BulkImportServiceTests {
+
+	@Autowired
+	private BulkImportService bulkImportService;
+
+	@Autowired
+	private PatientService patientService;
+
+	@Autowired
+	private PatientRepository patientRepository;
+
+	@Test
+	void ndjsonPatientsAreWrittenInBatchesAndBadRecordsReported() {
+		StringBuilder ndjson = new StringBuilder();
+		for (int i = 1; i <= 2500; i++) {
+			ndjson.append("{\"name\":\"Imported Person ").append(i)
+					.append("\",\"patientId\":\"IMP").append(i).append("\",\"dateOfBirth\":\"1970-01-01\"}\n");
+		}
+		ndjson.append("{not json}\n");
+		ndjson.append("{\"name\":\"Duplicate\",\"patientId\":\"IMP7\"}\n");
+		ndjson.append("{\"patientId\":\"IMP-NO-NAME\"}\n");
+
+		List<BatchProgress> progress = new ArrayList<>();
+		ImportReportResponseDTO report = bulkImportService.importRecords(BulkImportService.Kind.PATIENTS,
+				BulkImportService.Format.NDJSON, new StringReader(ndjson.toString()), progress::add);
+
+		assertThat(report.getRecords()).isEqualTo(2503);
+		assertThat(report.getImported()).isEqualTo(2500);
+		assertThat(report.getFailureCount()).isEqualTo(3);
+		assertThat(report.getFailures()).extracting(ImportReportResponseDTO.Failure::getLine)
+				.containsExactly(2501L, 2502L, 2503L);
+		assertThat(progress).extracting(BatchProgress::getRecords).containsExactly(1000, 1000, 503);
+		assertThat(progress.get(2).getTotalImported()).isEqualTo(2500);
+
+		assertThat(patientRepository.findByPatientId("IMP2500")).isPresent();
+		assertThat(patientService.searchPatients("imported person 1234", 1).get(0).getPatient().getPatientId())
+				.isEqualTo("IMP1234");
+	}
+
+	@Test
+	void csvNotesResolvePatientsAndBecomeSearchable() {
+		String csv = """
+				patientId,dateTime,noteType,note
+				PAT001,2024-04-02T09:00:00,Observation,"Ankle swelling, mild; advised ""elevation""\"
+				PAT002,2024-04-02T10:00:00,Observation,"Foot exam normal
+				monofilament sensation intact"
+				PAT999,2024-04-02T11:00:00,Observation,Unknown patient
+				PAT001,2024-04-02T12:00:00,Observation
+				""";
+
+		ImportReportResponseDTO report = bulkImportService.importRecords(BulkImportService.Kind.PROGRESS_NOTES,
+				BulkImportService.Format.CSV, new StringReader(csv), batch -> { });
+
+		assertThat(report.getImported()).isEqualTo(2);
+		assertThat(report.getFailures()).extracting(ImportReportResponseDTO.Failure::getError)
+				.containsExactly("Patient not found: PAT999", "Expected 4 columns but found 3");
+		assertThat(report.getFailures()).extracting(ImportReportResponseDTO.Failure::getLine)
+				.containsExactly(5L, 6L);
+		assertThat(patientService.searchClinicalText("monofilament", null, null, 10))
+				.singleElement()
+				.satisfies(hit -> assertThat(hit.getPatientId()).isEqualTo(2L));
+		assertThat(patientService.getProgressNotesByPatientId(1L))
+				.anyMatch(note -> note.getNote().equals("Ankle swelling, mild; advised \"elevation\""));
+	}
+}
@@ -0,0 +1,212 @@
+package com.healthcare.patientcare.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.patientcare.dto.response.ChangeEventDTO;
+import com.healthcare.patientcare.dto.response.ChangeEventsResponseDTO;
+import com.healthcare.patientcare.entity.Appointment;
+import com.healthcare.patientcare.entity.CarePlan;
+import com.healthcare.patientcare.entity.Patient;
+import com.healthcare.patientcare.entity.ProgressNote;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:events")
+@AutoConfigureMockMvc
+class ChangeEventLogTests {
+
+	@Autowired
+	private ChangeEventLog changeEventLog;
+
+	@Autowired
+	private PatientService patientService;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void everyMutationIsPublishedInCommitOrder() throws Exception {
+		long start = changeEventLog.lastOffset();
+		Patient patient = patientService.createPatient(patient("PAT-EVT-1"));
+		CarePlan carePlan = new CarePlan();
+		carePlan.setGoals("Walk daily");
+		patientService.updateCarePlan(patient.getId(), carePlan);
+		carePlan.setGoals("Walk daily, swim weekly");
+		patientService.updateCarePlan(patient.getId(), carePlan);
+		ProgressNote note = new ProgressNote();
+		note.setNote("Feeling better");
+		note.setDateTime(LocalDateTime.of(2031, 7, 1, 9, 0));
+		patientService.addProgressNote(patient.getId(), note);
+		Appointment appointment = appointmentService.createAppointment(patient.getId(),
+				appointment(LocalDateTime.of(2031, 7, 2, 9, 0)));
+		appointmentService.updateAppointment(appointment.getId(), appointment(LocalDateTime.of(2031, 7, 2, 10, 0)));
+		appointmentService.cancelAppointment(appointment.getId());
+		appointmentService.deleteAppointment(appointment.getId());
+
+		List<ChangeEventDTO> events = await(start, 8).getEvents();
+		assertThat(events).extracting(ChangeEventDTO::getType).containsExactly(
+				"patient.created", "care_plan.created", "care_plan.updated", "progress_note.created",
+				"appointment.created", "appointment.updated", "appointment.cancelled", "appointment.deleted");
+		assertThat(events).extracting(ChangeEventDTO::getOffset)
+				.containsExactly(start + 1, start + 2, start + 3, start + 4, start + 5, start + 6, start + 7, start + 8);
+		assertThat(events).allMatch(event -> patient.getId().equals(event.getPatientId()));
+
+		JsonNode updatedPlan = objectMapper.readTree(events.get(2).getPayload());
+		assertThat(updatedPlan.get("goals").asText()).isEqualTo("Walk daily, swim weekly");
+		assertThat(updatedPlan.get("version").asLong()).isEqualTo(1);
+		assertThat(objectMapper.readTree(events.get(5).getPayload()).get("appointmentDate").asText())
+				.startsWith("2031-07-02T10:00");
+		assertThat(events.get(7).getPayload()).isNull();
+
+		assertThat(changeEventLog.read(start, 100, ChangeEventLog.APPOINTMENT).getEvents()).hasSize(4);
+	}
+
+	@Test
+	void largestCarePlanFitsInItsEvent() throws Exception {
+		long created = changeEventLog.lastOffset();
+		Patient patient = patientService.createPatient(patient("PAT-EVT-5"));
+		long start = await(created, 1).getNextOffset();
+		// Every quote doubles when escaped, taking the payload well past 16000 characters
+		String escaped = "\"".repeat(3000);
+		CarePlan carePlan = new CarePlan();
+		carePlan.setGoals(escaped);
+		carePlan.setInterventions(escaped);
+		carePlan.setMedications(escaped);
+		patientService.updateCarePlan(patient.getId(), carePlan);
+
+		List<ChangeEventDTO> events = await(start, 1).getEvents();
+		assertThat(events).extracting(ChangeEventDTO::getType).containsExactly("care_plan.created");
+		assertThat(events.get(0).getPayload().length()).isGreaterThan(18000);
+		assertThat(objectMapper.readTree(events.get(0).getPayload()).get("medications").asText()).isEqualTo(escaped);
+	}
+
+	@Test
+	void rolledBackChangesPublishNothing() throws Exception {
+		long start = changeEventLog.lastOffset();
+		Patient committed = patientService.createPatient(patient("PAT-EVT-2"));
+
+		transactionTemplate.executeWithoutResult(status -> {
+			patientService.createPatient(patient("PAT-EVT-ROLLBACK"));
+			status.setRollbackOnly();
+		});
+		patientService.addProgressNote(committed.getId(), note("After the rollback"));
+
+		List<ChangeEventDTO> events = await(start, 2).getEvents();
+		assertThat(events).extracting(ChangeEventDTO::getType).containsExactly("patient.created", "progress_note.created");
+		Thread.sleep(200);
+		assertThat(changeEventLog.lastOffset()).isEqualTo(start + 2);
+	}
+
+	@Test
+	void longPollWaitsForTheNextEventAndResumesFromItsOffset() throws Exception {
+		long created = changeEventLog.lastOffset();
+		Patient patient = patientService.createPatient(patient("PAT-EVT-3"));
+		long start = await(created, 1).getNextOffset();
+
+		MvcResult pending = mockMvc.perform(get("/api/events")
+						.param("after", String.valueOf(start)).param("waitMs", "10000"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		patientService.addProgressNote(patient.getId(), note("Long poll"));
+		pending.getAsyncResult(10_000);
+		JsonNode page = objectMapper.readTree(mockMvc.perform(asyncDispatch(pending))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+		assertThat(page.get("events")).hasSize(1);
+		assertThat(page.get("events").get(0).get("type").asText()).isEqualTo("progress_note.created");
+		assertThat(page.get("events").get(0).get("payload").get("note").asText()).isEqualTo("Long poll");
+		assertThat(page.get("nextOffset").asLong()).isEqualTo(start + 1);
+
+		// Nothing newer: the poll times out with an empty page at the same offset
+		MvcResult idle = mockMvc.perform(get("/api/events")
+						.param("after", String.valueOf(start + 1)).param("waitMs", "200"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		// MockMvc has no container timer, so time the request out by hand
+		MockAsyncContext asyncContext = (MockAsyncContext) idle.getRequest().getAsyncContext();
+		for (AsyncListener listener : asyncContext.getListeners()) {
+			listener.onTimeout(null);
+		}
+		JsonNode empty = objectMapper.readTree(mockMvc.perform(asyncDispatch(idle))
+				.andReturn().getResponse().getContentAsString());
+		assertThat(empty.get("events")).isEmpty();
+		assertThat(empty.get("nextOffset").asLong()).isEqualTo(start + 1);
+	}
+
+	@Test
+	void streamResumesAfterLastEventId() throws Exception {
+		long start = changeEventLog.lastOffset();
+		Patient patient = patientService.createPatient(patient("PAT-EVT-4"));
+		patientService.addProgressNote(patient.getId(), note("First"));
+		patientService.addProgressNote(patient.getId(), note("Second"));
+		await(start, 3);
+
+		MvcResult result = mockMvc.perform(get("/api/events/stream")
+						.header("Last-Event-ID", String.valueOf(start + 1)))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = result.getResponse().getContentAsString();
+		assertThat(body).doesNotContain("id:" + (start + 1) + "\n");
+		assertThat(body).contains("id:" + (start + 2) + "\n", "id:" + (start + 3) + "\n");
+		assertThat(body).contains("\"type\":\"progress_note.created\"");
+	}
+
+	// Waits for the relay to publish the given number of events after the offset
+	private ChangeEventsResponseDTO await(long after, int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (changeEventLog.lastOffset() < after + count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		return changeEventLog.read(after, count, null);
+	}
+
+	private static Patient patient(String patientId) {
+		Patient patient = new Patient();
+		patient.setName("Event " + patientId);
+		patient.setPatientId(patientId);
+		patient.setDateOfBirth(LocalDate.of(1980, 5, 5));
+		return patient;
+	}
+
+	private static ProgressNote note(String text) {
+		ProgressNote note = new ProgressNote();
+		note.setNote(text);
+		note.setDateTime(LocalDateTime.of(2031, 7, 1, 9, 0));
+		return note;
+	}
+
+	private static Appointment appointment(LocalDateTime at) {
+		Appointment appointment = new Appointment();
+		appointment.setAppointmentDate(at);
+		appointment.setDurationMinutes(30);
+		appointment.setReason("Follow-up");
+		appointment.setProvider("Dr. Events");
+		return appointment;
+	}
+}
@@ -0,0 +1,94 @@
+package com.healthcare.patientcare.service;
+
+import com.healthcare.patientcare.entity.CarePlan;
+import com.healthcare.patientcare.entity.Patient;
+import com.healthcare.patientcare.entity.ProgressNote;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClinicalTextIndexTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void indexOnDiskIsReusedAfterCleanClose() throws Exception {
+		ClinicalTextIndex index = open(directory.toString());
+		index.add(note(10L, 1L, "HbA1c 7.2%, reviewed glucose log"));
+		index.add(carePlan(20L, 1L, "Achieve HbA1c below 7.0%"));
+		index.refresh();
+		index.close();
+
+		ClinicalTextIndex reopened = open(directory.toString());
+		try {
+			assertThat(reopened.isCurrent(2)).isTrue();
+			assertThat(reopened.isCurrent(3)).isFalse();
+			assertThat(reopened.search("hba1c", null, null, 10)).hasSize(2);
+		} finally {
+			reopened.close();
+		}
+	}
+
+	@Test
+	void indexIsRebuiltAfterUncleanClose() throws Exception {
+		ClinicalTextIndex index = open(directory.toString());
+		index.add(note(10L, 1L, "Blood pressure 128/82"));
+		index.refresh();
+		// As after an update that failed to reach the index
+		ReflectionTestUtils.setField(index, "stale", true);
+		index.close();
+
+		ClinicalTextIndex reopened = open(directory.toString());
+		try {
+			assertThat(reopened.isCurrent(1)).isFalse();
+		} finally {
+			reopened.close();
+		}
+	}
+
+	@Test
+	void indexInMemoryIsNeverCurrent() throws Exception {
+		ClinicalTextIndex index = open("");
+		try {
+			assertThat(index.isCurrent(0)).isFalse();
+		} finally {
+			index.close();
+		}
+	}
+
+	private static ClinicalTextIndex open(String indexDirectory) throws Exception {
+		ClinicalTextIndex index = new ClinicalTextIndex();
+		ReflectionTestUtils.setField(index, "indexDirectory", indexDirectory);
+		index.open();
+		return index;
+	}
+
+	private static ProgressNote note(Long id, Long patientId, String text) {
+		ProgressNote note = new ProgressNote();
+		note.setId(id);
+		note.setNote(text);
+		note.setDateTime(LocalDateTime.of(2030, 3, 4, 9, 0));
+		note.setPatient(patient(patientId));
+		return note;
+	}
+
+	private static CarePlan carePlan(Long id, Long patientId, String goals) {
+		CarePlan carePlan = new CarePlan();
+		carePlan.setId(id);
+		carePlan.setGoals(goals);
+		carePlan.setPatient(patient(patientId));
+		return carePlan;
+	}
+
+	private static Patient patient(Long id) {
+		Patient patient = new Patient();
+		patient.setId(id);
+		return patient;
+	}
+}
@@ -0,0 +1,98 @@
+package com.healthcare.patientcare.service;
+
+import com.healthcare.patientcare.dto.response.PatientSearchResultDTO;
+import com.healthcare.patientcare.dto.response.PatientSummaryResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PatientSearchIndexTests {
+
+	private PatientSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new PatientSearchIndex();
+		index.add(patient(1L, "John Smith", "PAT001"));
+		index.add(patient(2L, "Sarah Johnson", "PAT002"));
+		index.add(patient(3L, "Johnny Smithers", "PAT003"));
+		index.add(patient(4L, "Maria Garcia", "PAT004"));
+	}
+
+	@Test
+	void prefixesOfEveryWordMatch() {
+		assertThat(ids(index.search("joh smi", 10))).containsExactly(1L, 3L);
+		assertThat(ids(index.search("pat004", 10))).containsExactly(4L);
+	}
+
+	@Test
+	void wholeWordMatchesRankAheadOfPrefixMatches() {
+		List<PatientSearchResultDTO> results = index.search("john", 10);
+
+		assertThat(ids(results)).containsExactly(1L, 2L, 3L);
+		assertThat(results).allMatch(result -> result.getDistance() == 0);
+	}
+
+	@Test
+	void misspelledNamesAreFoundByEditDistance() {
+		List<PatientSearchResultDTO> results = index.search("Jon Smtih", 10);
+
+		assertThat(results.get(0).getPatient().getId()).isEqualTo(1L);
+		assertThat(results.get(0).getDistance()).isEqualTo(2);
+		assertThat(ids(index.search("garsia", 10))).containsExactly(4L);
+		assertThat(index.search("zzzz", 10)).isEmpty();
+	}
+
+	@Test
+	void reindexingReplacesThePreviousEntry() {
+		index.add(patient(4L, "Maria Lopez", "PAT004"));
+
+		assertThat(index.size()).isEqualTo(4);
+		assertThat(index.search("garcia", 10)).allMatch(result -> result.getDistance() > 0);
+		assertThat(ids(index.search("lopez", 10))).containsExactly(4L);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void reindexingReusesTheDocumentAndDropsStaleWords() {
+		for (int i = 0; i < 100; i++) {
+			index.add(patient(4L, "Maria Name" + i, "PAT004"));
+		}
+
+		assertThat((List<?>) ReflectionTestUtils.getField(index, "entries")).hasSize(4);
+		assertThat((Map<String, ?>) ReflectionTestUtils.getField(index, "words")).doesNotContainKeys("garcia", "name0", "name98");
+		assertThat(index.search("garcia", 10)).allMatch(result -> result.getDistance() > 0);
+		assertThat(ids(index.search("maria name99", 10))).containsExactly(4L);
+		assertThat(index.search("name98", 10)).allMatch(result -> result.getDistance() > 0);
+	}
+
+	@Test
+	void intersectionScalesPastTheInitialMatchTable() {
+		for (long id = 100; id < 1100; id++) {
+			index.add(patient(id, "Common Surname", "CS" + id));
+		}
+
+		assertThat(ids(index.search("common cs77", 50))).containsExactlyInAnyOrder(
+				770L, 771L, 772L, 773L, 774L, 775L, 776L, 777L, 778L, 779L);
+		assertThat(index.search("surname", 50)).hasSize(50);
+	}
+
+	@Test
+	void limitCapsTheResults() {
+		assertThat(index.search("pat", 2)).hasSize(2);
+		assertThat(index.search("   ", 10)).isEmpty();
+	}
+
+	private static PatientSummaryResponseDTO patient(Long id, String name, String patientId) {
+		return new PatientSummaryResponseDTO(id, name, patientId, null, null, null, null, null);
+	}
+
+	private static List<Long> ids(List<PatientSearchResultDTO> results) {
+		return results.stream().map(result -> result.getPatient().getId()).toList();
+	}
+}
@@ -0,0 +1,97 @@
+package com.healthcare.patientcare.service;
+
+import com.healthcare.patientcare.entity.Appointment;
+import com.healthcare.patientcare.entity.CarePlan;
+import com.healthcare.patientcare.entity.Patient;
+import com.healthcare.patientcare.entity.ProgressNote;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PatientServiceCacheTests {
+
+	@Autowired
+	private PatientService patientService;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Test
+	void repeatedReadsAreServedFromCache() {
+		Patient first = patientService.getPatientById(2L).orElseThrow();
+		Patient second = patientService.getPatientById(2L).orElseThrow();
+		assertSame(first, second);
+	}
+
+	@Test
+	void addProgressNoteEvictsNotesAndPatient() {
+		Patient patient = patientService.createPatient(newPatient("PAT-CACHE-1"));
+		Long id = patient.getId();
+
+		assertTrue(patientService.getProgressNotesByPatientId(id).isEmpty());
+		Patient before = patientService.getPatientById(id).orElseThrow();
+
+		ProgressNote note = new ProgressNote();
+		note.setNote("Cache invalidation check");
+		note.setDateTime(LocalDateTime.now());
+		patientService.addProgressNote(id, note);
+
+		List<ProgressNote> notes = patientService.getProgressNotesByPatientId(id);
+		assertEquals(1, notes.size());
+		Patient after = patientService.getPatientById(id).orElseThrow();
+		assertNotSame(before, after);
+		assertEquals(1, after.getProgressNotes().size());
+	}
+
+	@Test
+	void updateCarePlanEvictsCachedPlan() {
+		Patient patient = patientService.createPatient(newPatient("PAT-CACHE-2"));
+		Long id = patient.getId();
+		assertTrue(patientService.getCarePlanByPatientId(id).isEmpty());
+
+		CarePlan plan = new CarePlan();
+		plan.setGoals("Initial goals");
+		patientService.updateCarePlan(id, plan);
+		assertEquals("Initial goals", patientService.getCarePlanByPatientId(id).orElseThrow().getGoals());
+
+		plan.setGoals("Revised goals");
+		patientService.updateCarePlan(id, plan);
+		assertEquals("Revised goals", patientService.getCarePlanByPatientId(id).orElseThrow().getGoals());
+	}
+
+	@Test
+	void appointmentMutationsEvictPatient() {
+		Patient patient = patientService.createPatient(newPatient("PAT-CACHE-3"));
+		Long id = patient.getId();
+		assertTrue(patientService.getPatientById(id).orElseThrow().getAppointments().isEmpty());
+
+		Appointment appointment = new Appointment();
+		appointment.setAppointmentDate(LocalDateTime.now().plusDays(1));
+		appointment.setProvider("Dr. Cache");
+		Appointment created = appointmentService.createAppointment(id, appointment);
+		assertEquals(1, patientService.getPatientById(id).orElseThrow().getAppointments().size());
+
+		appointmentService.cancelAppointment(created.getId());
+		assertEquals("Cancelled",
+				patientService.getPatientById(id).orElseThrow().getAppointments().get(0).getStatus());
+
+		appointmentService.deleteAppointment(created.getId());
+		assertTrue(patientService.getPatientById(id).orElseThrow().getAppointments().isEmpty());
+	}
+
+	private Patient newPatient(String patientId) {
+		Patient patient = new Patient();
+		patient.setName("Cache Test " + patientId);
+		patient.setPatientId(patientId);
+		patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+		return patient;
+	}
+
+}
@@ -0,0 +1,155 @@
+package com.healthcare.patientcare.service;
+
+import com.healthcare.patientcare.PatientCareApplication;
+import com.healthcare.patientcare.config.CacheConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PatientService and AppointmentService read paths against an H2 database
+ * seeded through the bulk importer. Lookups pick a random seeded patient; the
+ * uncached variants evict it first so every call reaches the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatientServiceReadBenchmark {
+
+    private static final String[] PROVIDERS = {
+            "Dr. Sarah Johnson", "Dr. Michael Chen", "Dr. Priya Patel", "Dr. Omar Haddad", "Dr. Lena Fischer"
+    };
+
+    @Param({"10000"})
+    public int patients;
+
+    @Param({"5"})
+    public int notesPerPatient;
+
+    private ConfigurableApplicationContext context;
+    private PatientService patientService;
+    private AppointmentService appointmentService;
+    private Cache patientCache;
+    private Cache notesCache;
+
+    private long firstId;
+    private long lastId;
+    private String middleCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Command-line arguments, so they win over application.properties
+        context = new SpringApplicationBuilder(PatientCareApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false",
+                        "--spring.datasource.url=jdbc:h2:mem:servicebench",
+                        "--logging.level.root=WARN");
+        patientService = context.getBean(PatientService.class);
+        appointmentService = context.getBean(AppointmentService.class);
+        CacheManager cacheManager = context.getBean(CacheManager.class);
+        patientCache = cacheManager.getCache(CacheConfig.PATIENTS);
+        notesCache = cacheManager.getCache(CacheConfig.PROGRESS_NOTES);
+
+        seed(context.getBean(BulkImportService.class));
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        firstId = jdbc.queryForObject("SELECT MIN(id) FROM patients WHERE patient_id LIKE 'BENCH%'", Long.class);
+        lastId = jdbc.queryForObject("SELECT MAX(id) FROM patients WHERE patient_id LIKE 'BENCH%'", Long.class);
+        middleCursor = String.valueOf(firstId + (lastId - firstId) / 2);
+    }
+
+    private void seed(BulkImportService importer) {
+        StringBuilder patientLines = new StringBuilder();
+        StringBuilder noteLines = new StringBuilder();
+        StringBuilder appointmentLines = new StringBuilder();
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+        for (int i = 0; i < patients; i++) {
+            patientLines.append("{\"name\":\"Bench Patient ").append(i).append("\",\"patientId\":\"BENCH").append(i)
+                    .append("\",\"gender\":\"Female\",\"dateOfBirth\":\"1970-01-01\"}\n");
+            for (int n = 0; n < notesPerPatient; n++) {
+                noteLines.append("{\"patientId\":\"BENCH").append(i).append("\",\"dateTime\":\"")
+                        .append(base.minusDays(n)).append("\",\"note\":\"Benchmark note ").append(n)
+                        .append("\",\"provider\":\"").append(PROVIDERS[n % PROVIDERS.length]).append("\"}\n");
+            }
+            // One 30-minute slot per patient, spread over the providers so none are double-booked
+            LocalDateTime slot = base.plusDays(i / PROVIDERS.length / 20).plusMinutes(30L * (i / PROVIDERS.length % 20));
+            appointmentLines.append("{\"patientId\":\"BENCH").append(i).append("\",\"appointmentDate\":\"").append(slot)
+                    .append("\",\"provider\":\"").append(PROVIDERS[i % PROVIDERS.length]).append("\"}\n");
+        }
+        importer.importRecords(BulkImportService.Kind.PATIENTS, BulkImportService.Format.NDJSON,
+                new StringReader(patientLines.toString()), progress -> { });
+        importer.importRecords(BulkImportService.Kind.PROGRESS_NOTES, BulkImportService.Format.NDJSON,
+                new StringReader(noteLines.toString()), progress -> { });
+        importer.importRecords(BulkImportService.Kind.APPOINTMENTS, BulkImportService.Format.NDJSON,
+                new StringReader(appointmentLines.toString()), progress -> { });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(firstId, lastId + 1);
+    }
+
+    @Benchmark
+    public Object patientByIdCached() {
+        return patientService.getPatientById(firstId);
+    }
+
+    @Benchmark
+    public Object patientByIdUncached() {
+        long id = randomId();
+        patientCache.evict(id);
+        return patientService.getPatientById(id);
+    }
+
+    @Benchmark
+    public Object progressNotesUncached() {
+        long id = randomId();
+        notesCache.evict(id);
+        return patientService.getProgressNotesByPatientId(id);
+    }
+
+    @Benchmark
+    public Object appointmentsByPatient() {
+        return appointmentService.getAppointmentsByPatientId(randomId());
+    }
+
+    @Benchmark
+    public Object patientsPage() {
+        return patientService.getPatientsPage(middleCursor, 50);
+    }
+
+    @Benchmark
+    public Object searchPatients() {
+        return patientService.searchPatients("bench patnt 42", 10);
+    }
+
+    @Benchmark
+    public Object patientByName() {
+        return patientService.getPatientByName("Bench Patient " + (patients / 2));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PatientServiceReadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
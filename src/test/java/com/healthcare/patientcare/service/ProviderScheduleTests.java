@@ -0,0 +1,120 @@
+package com.healthcare.patientcare.service;
+
+import com.healthcare.patientcare.dto.response.AvailableSlotDTO;
+import com.healthcare.patientcare.entity.Appointment;
+import com.healthcare.patientcare.service.ProviderSchedule.Booking;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProviderScheduleTests {
+
+	private static final LocalDateTime DAY = LocalDateTime.of(2030, 3, 4, 0, 0);
+
+	private ProviderSchedule schedule;
+
+	@BeforeEach
+	void setUp() {
+		schedule = new ProviderSchedule();
+		ReflectionTestUtils.setField(schedule, "dayStart", LocalTime.of(8, 0));
+		ReflectionTestUtils.setField(schedule, "dayEnd", LocalTime.of(18, 0));
+		ReflectionTestUtils.setField(schedule, "slotMinutes", 15);
+	}
+
+	@Test
+	void overlappingBookingsForTheSameProviderAreRejected() {
+		schedule.update(null, booking(1L, "Dr. A", 9, 0, 60));
+
+		assertThatThrownBy(() -> schedule.update(null, booking(2L, "Dr. A", 9, 30, 30)))
+				.isInstanceOf(SchedulingConflictException.class)
+				.hasMessageContaining("appointment 1");
+		assertThatThrownBy(() -> schedule.update(null, booking(3L, "Dr. A", 8, 30, 120)))
+				.isInstanceOf(SchedulingConflictException.class);
+		// Back-to-back bookings and other providers are fine
+		schedule.update(null, booking(4L, "Dr. A", 10, 0, 30));
+		schedule.update(null, booking(5L, "Dr. B", 9, 0, 60));
+	}
+
+	@Test
+	void movingABookingIgnoresItsOwnPreviousTime() {
+		Booking original = booking(1L, "Dr. A", 9, 0, 60);
+		schedule.update(null, original);
+		schedule.update(original, booking(1L, "Dr. A", 9, 30, 60));
+
+		schedule.update(null, booking(2L, "Dr. A", 8, 30, 30));
+		assertThatThrownBy(() -> schedule.update(null, booking(3L, "Dr. A", 10, 0, 30)))
+				.isInstanceOf(SchedulingConflictException.class);
+	}
+
+	@Test
+	void availableSlotsAreTheGapsInWorkingHours() {
+		schedule.update(null, booking(1L, "Dr. A", 9, 0, 60));
+		schedule.update(null, booking(2L, "Dr. A", 10, 20, 40));
+		schedule.update(null, booking(3L, "Dr. A", 12, 0, 300));
+
+		List<AvailableSlotDTO> slots = schedule.findAvailableSlots("Dr. A", DAY, DAY.plusDays(1), 30, 10);
+
+		assertThat(slots).containsExactly(
+				new AvailableSlotDTO(at(8, 0), at(9, 0)),
+				new AvailableSlotDTO(at(11, 0), at(12, 0)),
+				new AvailableSlotDTO(at(17, 0), at(18, 0)));
+		// The 10:00-10:20 gap is too short for 30 minutes
+		assertThat(schedule.findAvailableSlots("Dr. A", DAY, DAY.plusDays(1), 61, 10)).isEmpty();
+		assertThat(schedule.findAvailableSlots("Dr. Free", at(13, 5), at(14, 0), 30, 10))
+				.containsExactly(new AvailableSlotDTO(at(13, 15), at(14, 0)));
+	}
+
+	@Test
+	void concurrentBookingsOfOneSlotLetExactlyOneThrough() throws Exception {
+		int threads = 16;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger booked = new AtomicInteger();
+		try {
+			List<Future<?>> futures = new java.util.ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				long id = i + 1;
+				futures.add(executor.submit(() -> {
+					start.await();
+					try {
+						schedule.update(null, booking(id, "Dr. A", 9, (int) id, 30));
+						booked.incrementAndGet();
+					} catch (SchedulingConflictException e) {
+						// expected for all but one
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertThat(booked.get()).isEqualTo(1);
+	}
+
+	private static Booking booking(Long id, String provider, int hour, int minute, int duration) {
+		Appointment appointment = new Appointment();
+		appointment.setId(id);
+		appointment.setProvider(provider);
+		appointment.setAppointmentDate(at(hour, minute));
+		appointment.setDurationMinutes(duration);
+		appointment.setStatus("Scheduled");
+		return Booking.of(appointment);
+	}
+
+	private static LocalDateTime at(int hour, int minute) {
+		return DAY.withHour(hour).withMinute(minute);
+	}
+}